@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Every archived booking has already ended, so the same queries serve both the PAST and the ALL history.
+ */
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @Query("SELECT a FROM ArchivedBooking a "
+            + "JOIN FETCH a.item JOIN FETCH a.booker "
+            + "WHERE a.booker.id = :bookerId "
+            + "ORDER BY a.start DESC, a.id DESC")
+    List<ArchivedBooking> findByBookerId(@Param("bookerId") Long bookerId, Pageable page);
+
+    @Query("SELECT a FROM ArchivedBooking a "
+            + "JOIN FETCH a.item i JOIN FETCH a.booker "
+            + "WHERE i.ownerId = :ownerId "
+            + "ORDER BY a.start DESC, a.id DESC")
+    List<ArchivedBooking> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable page);
+
+    @Query("SELECT a FROM ArchivedBooking a "
+            + "JOIN FETCH a.item JOIN FETCH a.booker "
+            + "WHERE a.booker.id = :bookerId "
+            + "AND (a.start, a.id) < (:cursorStart, :cursorId) "
+            + "ORDER BY a.start DESC, a.id DESC")
+    List<ArchivedBooking> findByBookerIdBeforeCursor(@Param("bookerId") Long bookerId,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") Long cursorId,
+                                                     Pageable page);
+
+    @Query("SELECT a FROM ArchivedBooking a "
+            + "JOIN FETCH a.item i JOIN FETCH a.booker "
+            + "WHERE i.ownerId = :ownerId "
+            + "AND (a.start, a.id) < (:cursorStart, :cursorId) "
+            + "ORDER BY a.start DESC, a.id DESC")
+    List<ArchivedBooking> findByItemOwnerIdBeforeCursor(@Param("ownerId") Long ownerId,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") Long cursorId,
+                                                        Pageable page);
+
+    @Query("SELECT MAX(a.start) FROM ArchivedBooking a")
+    Optional<LocalDateTime> findLatestStart();
+
+    boolean existsByItemIdAndBookerIdAndStatus(Long itemId, Long bookerId, BookingStatus status);
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Moves bookings that ended more than {@code shareit.booking-archive.horizon-days} ago into
+ * {@code bookings_archive}, one chunk per transaction. Bookings still referenced by an item booking summary stay
+ * hot so the item's last booking keeps resolving. WAITING and REJECTED bookings stay hot as well: history pages
+ * merge the archive only for ALL and PAST, so archiving them would drop them from the WAITING and REJECTED lists.
+ */
+@Slf4j
+@Service
+public class BookingArchiveService {
+    private static final Set<BookingStatus> ARCHIVED_STATUSES = EnumSet.of(BookingStatus.APPROVED,
+            BookingStatus.DECLINED, BookingStatus.COMPLETED, BookingStatus.EXPIRED);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingStatsService bookingStats;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int chunkSize;
+    private final AtomicReference<LocalDateTime> latestArchivedStart = new AtomicReference<>();
+    private volatile boolean latestArchivedStartLoaded;
+
+    public BookingArchiveService(BookingRepository bookingRepository,
+                                 ArchivedBookingRepository archivedBookingRepository,
+                                 BookingIntervalIndex intervalIndex, BookingStatsService bookingStats,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${shareit.booking-archive.horizon-days:365}") int horizonDays,
+                                 @Value("${shareit.booking-archive.chunk-size:1000}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.intervalIndex = intervalIndex;
+        this.bookingStats = bookingStats;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(horizonDays);
+        long archived = 0L;
+        Integer chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            archived += chunk == null ? 0 : chunk;
+        } while (chunk != null && chunk == chunkSize);
+        if (archived > 0) {
+            log.info("Archived {} bookings that ended before {}", archived, cutoff);
+        }
+    }
+
+    /**
+     * Whether a history page sorted by start descending may have to be merged with archived bookings: it is
+     * shorter than requested or ends at or before the start of the newest archived booking.
+     */
+    public boolean reachesArchive(List<Booking> page, int size) {
+        LocalDateTime latest = latestArchivedStart();
+        if (latest == null) {
+            return false;
+        }
+        return page.size() < size || !page.get(page.size() - 1).getStart().isAfter(latest);
+    }
+
+    LocalDateTime latestArchivedStart() {
+        if (!latestArchivedStartLoaded) {
+            archivedBookingRepository.findLatestStart().ifPresent(this::advanceLatestArchivedStart);
+            latestArchivedStartLoaded = true;
+        }
+        return latestArchivedStart.get();
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        List<Booking> bookings = bookingRepository.findArchivable(cutoff, ARCHIVED_STATUSES,
+                PageRequest.of(0, chunkSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.archiveAll(bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        LocalDateTime latest = bookings.get(0).getStart();
+        for (Booking booking : bookings) {
+            intervalIndex.remove(booking.getItem().getId(), booking.getId(), booking.getStart());
+            if (booking.getStart().isAfter(latest)) {
+                latest = booking.getStart();
+            }
+        }
+        bookings.stream()
+                .map(booking -> booking.getItem().getOwnerId())
+                .distinct()
+                .forEach(bookingStats::invalidate);
+        LocalDateTime chunkLatest = latest;
+        TransactionCallbacks.afterCommit(() -> advanceLatestArchivedStart(chunkLatest));
+        return bookings.size();
+    }
+
+    private void advanceLatestArchivedStart(LocalDateTime start) {
+        latestArchivedStart.accumulateAndGet(start,
+                (current, candidate) -> current == null || candidate.isAfter(current) ? candidate : current);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Booking writes that go through JDBC batches instead of one JPA statement per row. Rows are updated in the order
+ * the ids are given; callers pass them in ascending id order so concurrent batches lock rows in the same order.
+ */
+public interface BookingBatchRepository {
+
+    /**
+     * Applies {@link BookingRepository#decide} to every entry in a single JDBC batch and returns the ids of the
+     * bookings whose status actually changed.
+     */
+    Set<Long> decideAll(Long ownerId, Map<Long, BookingStatus> decisions);
+
+    /**
+     * Inserts new bookings in a single JDBC batch and assigns the generated ids to them. The bookings are not
+     * attached to the persistence context.
+     */
+    void insertAll(List<Booking> bookings);
+
+    /**
+     * Moves the given bookings to {@link BookingStatus#EXPIRED} in a single JDBC batch, skipping any that are no
+     * longer waiting or have not started by {@code now}, and returns the ids of the expired ones.
+     */
+    Set<Long> expireAll(Collection<Long> bookingIds, LocalDateTime now);
+
+    /**
+     * Copies the given bookings to {@code bookings_archive} and deletes them from {@code bookings}. Returns the
+     * number of bookings moved.
+     */
+    int archiveAll(Collection<Long> bookingIds);
+}
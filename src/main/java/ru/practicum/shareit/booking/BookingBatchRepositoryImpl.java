@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String DECIDE = "UPDATE bookings SET status = ?, version = version + 1 "
+            + "WHERE id = ? AND status = 'WAITING' AND item_id IN (SELECT id FROM items WHERE owner_id = ?)";
+
+    private static final String INSERT = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, version) "
+            + "VALUES (?, ?, ?, ?, ?, 0)";
+
+    private static final String EXPIRE = "UPDATE bookings SET status = 'EXPIRED', version = version + 1 "
+            + "WHERE id = ? AND status = 'WAITING' AND start_date < ?";
+
+    private static final String ARCHIVE = "INSERT INTO bookings_archive "
+            + "(id, start_date, end_date, item_id, booker_id, status, version) "
+            + "SELECT id, start_date, end_date, item_id, booker_id, status, version FROM bookings WHERE id IN (%s)";
+
+    private static final String DELETE_ARCHIVED = "DELETE FROM bookings WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Long> decideAll(Long ownerId, Map<Long, BookingStatus> decisions) {
+        List<Long> ids = new ArrayList<>(decisions.size());
+        List<Object[]> rows = new ArrayList<>(decisions.size());
+        decisions.forEach((id, status) -> {
+            ids.add(id);
+            rows.add(new Object[]{status.name(), id, ownerId});
+        });
+        int[] counts = jdbcTemplate.batchUpdate(DECIDE, rows);
+        Set<Long> decided = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                decided.add(ids.get(i));
+            }
+        }
+        return decided;
+    }
+
+    @Override
+    public Set<Long> expireAll(Collection<Long> bookingIds, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(bookingIds);
+        Timestamp before = Timestamp.valueOf(now);
+        int[] counts = jdbcTemplate.batchUpdate(EXPIRE, ids.stream()
+                .map(id -> new Object[]{id, before})
+                .collect(Collectors.toList()));
+        Set<Long> expired = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                expired.add(ids.get(i));
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public int archiveAll(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(bookingIds.size(), "?"));
+        Object[] ids = bookingIds.toArray();
+        jdbcTemplate.update(String.format(ARCHIVE, placeholders), ids);
+        return jdbcTemplate.update(String.format(DELETE_ARCHIVED, placeholders), ids);
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                    statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                    statement.setLong(3, booking.getItem().getId());
+                    statement.setLong(4, booking.getBooker().getId());
+                    statement.setString(5, booking.getStatus().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated id for a batch-inserted booking.");
+                        }
+                        booking.setId(keys.getLong(1));
+                        booking.setVersion(0L);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
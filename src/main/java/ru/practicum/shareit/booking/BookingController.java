@@ -2,12 +2,17 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.groups.Inpute;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 @RestController
@@ -17,6 +22,7 @@ import java.util.List;
 @Validated
 public class BookingController {
     private static final String OWNER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 500;
     private final BookingService bookingService;
 
     @PostMapping
@@ -26,6 +32,23 @@ public class BookingController {
         return bookingService.create(bookingDto, userId);
     }
 
+    @PostMapping("/group")
+    public List<BookingDto> createGroup(@Validated({Inpute.class}) @RequestBody BookingGroupDto group,
+                                        @RequestHeader(OWNER_ID_HEADER) long userId) {
+        log.info("Received a POST-request to the endpoint: '/bookings/group' to book items {} by the user with ID = {}",
+                group.getItemIds(), userId);
+        return bookingService.createGroup(group, userId);
+    }
+
+    @PostMapping("/bulk")
+    public List<BookingCreationResultDto> createAll(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                    List<BookingDto> bookingDtos,
+                                                    @RequestHeader(OWNER_ID_HEADER) long userId) {
+        log.info("Received a POST-request to the endpoint: '/bookings/bulk' to add {} bookings by the user with ID = {}",
+                bookingDtos.size(), userId);
+        return bookingService.createAll(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto save(@RequestHeader(OWNER_ID_HEADER) Long userId,
                            @PathVariable Long bookingId,
@@ -34,6 +57,29 @@ public class BookingController {
         return bookingService.approve(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> saveAll(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                  @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                  List<@Valid BookingDecisionDto> decisions) {
+        log.info("Received a PATCH-request to the endpoint: '/bookings/batch' to decide {} bookings of owner with ID = {}",
+                decisions.size(), userId);
+        return bookingService.decideAll(userId, decisions);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamByOwner(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Received a GET-request to the endpoint: '/bookings/owner/stream' to subscribe owner with ID = {}",
+                userId);
+        return bookingService.subscribeOwner(userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDto statsByOwner(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Received a GET-request to the endpoint: '/bookings/owner/stats' to count bookings of owner with ID = {}",
+                userId);
+        return bookingService.findStatsByOwner(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto findById(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                @PathVariable Long bookingId) {
@@ -58,4 +104,22 @@ public class BookingController {
         log.info("Received a GET-request to the endpoint: '/bookings' to get all booking of owner with ID = {}", userId);
         return bookingService.findAllBookingsByOwner(state, userId, from, size);
     }
+
+    @GetMapping(params = "cursor")
+    public BookingPageDto findPageByUserId(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                           @RequestParam(defaultValue = "ALL") State state,
+                                           @RequestParam(defaultValue = "") String cursor,
+                                           @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Received a GET-request to the endpoint: '/bookings' to get a page of bookings of user with ID = {}", userId);
+        return bookingService.findBookingPageByUser(state, userId, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public BookingPageDto findPageByOwnerId(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                            @RequestParam(defaultValue = "ALL") State state,
+                                            @RequestParam(defaultValue = "") String cursor,
+                                            @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Received a GET-request to the endpoint: '/bookings' to get a page of bookings of owner with ID = {}", userId);
+        return bookingService.findBookingPageByOwner(state, userId, cursor, size);
+    }
 }
\ No newline at end of file
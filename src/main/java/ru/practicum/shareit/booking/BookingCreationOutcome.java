@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingCreationOutcome {
+    CREATED,
+    INVALID_TIME,
+    ITEM_NOT_FOUND,
+    OWN_ITEM,
+    NOT_AVAILABLE,
+    OVERLAP
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookingCreationResultDto {
+    private int index;
+    private BookingCreationOutcome outcome;
+    private BookingDto booking;
+}
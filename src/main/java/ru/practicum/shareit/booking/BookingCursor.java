@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a booking list ordered by start and id, both descending. Clients receive it as an opaque
+ * token and pass it back to continue from the last booking they have seen.
+ */
+@Value
+public class BookingCursor {
+    static final LocalDateTime MIN_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    static final BookingCursor FIRST = new BookingCursor(MAX_TIME, Long.MAX_VALUE);
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime start;
+    Long id;
+
+    public static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    public String encode() {
+        String raw = start.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Narrows the cursor so that only bookings starting strictly before {@code time} remain.
+     */
+    public BookingCursor before(LocalDateTime time) {
+        return start.isBefore(time) ? this : new BookingCursor(time, Long.MIN_VALUE);
+    }
+}
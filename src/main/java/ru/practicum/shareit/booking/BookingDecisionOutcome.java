@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingDecisionOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    NOT_OWNER,
+    ALREADY_DECIDED,
+    DUPLICATE
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private BookingDecisionOutcome outcome;
+}
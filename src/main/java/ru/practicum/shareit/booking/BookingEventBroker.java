@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of booking events to owners' SSE connections. Connections are asynchronous, so an idle
+ * subscriber holds only its emitter and a bounded buffer; a small pool of sender threads drains the buffers.
+ * A subscriber whose buffer overflows is disconnected and is expected to reload its inbox and reconnect.
+ */
+@Slf4j
+@Component
+public class BookingEventBroker {
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final ExecutorService senders;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public BookingEventBroker(@Value("${shareit.booking-stream.buffer-size:64}") int bufferSize,
+                              @Value("${shareit.booking-stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${shareit.booking-stream.senders:4}") int senders) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "booking-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long ownerId) {
+        return subscribe(ownerId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long ownerId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(ownerId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.compute(ownerId, (id, owned) -> {
+            Set<Subscriber> set = owned == null ? ConcurrentHashMap.newKeySet() : owned;
+            set.add(subscriber);
+            return set;
+        });
+        return emitter;
+    }
+
+    /**
+     * Delivers the event to the owner's subscribers once the surrounding transaction commits.
+     */
+    public void publish(Long ownerId, BookingEventType type, BookingDto booking) {
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Subscriber> owned = subscribers.get(ownerId);
+            if (owned == null) {
+                return;
+            }
+            BookingEventDto event = new BookingEventDto(type, booking);
+            for (Subscriber subscriber : owned) {
+                if (subscriber.queue.offer(event)) {
+                    schedule(subscriber);
+                } else {
+                    log.info("Dropping slow booking stream subscriber of owner with ID = {}", ownerId);
+                    remove(subscriber);
+                    subscriber.emitter.complete();
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(owned -> owned.forEach(subscriber -> senders.execute(() -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber);
+            }
+        })));
+    }
+
+    int subscriberCount(Long ownerId) {
+        Set<Subscriber> owned = subscribers.get(ownerId);
+        return owned == null ? 0 : owned.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            BookingEventDto event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getBooking().getId()))
+                        .name(event.getType().name())
+                        .data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.ownerId, (id, owned) -> {
+            owned.remove(subscriber);
+            return owned.isEmpty() ? null : owned;
+        });
+    }
+
+    private static final class Subscriber {
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        private final Queue<BookingEventDto> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long ownerId, SseEmitter emitter, Queue<BookingEventDto> queue) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.lock.StripedLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Moves waiting bookings that were never decided before their start to {@link BookingStatus#EXPIRED}. Each chunk
+ * is read by keyset and expired in its own short transaction, so a large backlog never holds row or item locks
+ * for longer than one chunk. Rows are updated in ascending id order, like {@link BookingService#decideAll}, and
+ * before item locks are taken, in the same order as {@link BookingService#approve}.
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "ru.practicum.shareit:type=BookingExpiry")
+public class BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final StripedLock itemLocks;
+    private final ItemBookingSummaryService bookingSummaries;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingEventBroker events;
+    private final BookingStatsService stats;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lastRunLagSeconds = new AtomicLong();
+    private final AtomicLong totalExpired = new AtomicLong();
+
+    public BookingExpiryService(BookingRepository bookingRepository, BookingIntervalIndex intervalIndex,
+                                StripedLock itemLocks, ItemBookingSummaryService bookingSummaries,
+                                ItemAvailabilityIndex availabilityIndex, BookingEventBroker events,
+                                BookingStatsService stats, TransactionTemplate transactionTemplate,
+                                @Value("${shareit.booking-expiry.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.intervalIndex = intervalIndex;
+        this.itemLocks = itemLocks;
+        this.bookingSummaries = bookingSummaries;
+        this.availabilityIndex = availabilityIndex;
+        this.events = events;
+        this.stats = stats;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.interval-ms:60000}")
+    public void expire() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastStart = BookingCursor.MIN_TIME;
+        long lastId = 0L;
+        long expired = 0L;
+        LocalDateTime oldestExpired = null;
+        Chunk chunk;
+        do {
+            LocalDateTime afterStart = lastStart;
+            long afterId = lastId;
+            chunk = transactionTemplate.execute(status -> expireChunk(now, afterStart, afterId));
+            if (chunk == null || chunk.bookings.isEmpty()) {
+                break;
+            }
+            if (oldestExpired == null) {
+                oldestExpired = chunk.oldestExpired;
+            }
+            expired += chunk.expired;
+            Booking last = chunk.bookings.get(chunk.bookings.size() - 1);
+            lastStart = last.getStart();
+            lastId = last.getId();
+        } while (chunk.bookings.size() == chunkSize);
+        long lagSeconds = oldestExpired == null ? 0L : Duration.between(oldestExpired, now).getSeconds();
+        lastRunExpired.set(expired);
+        lastRunLagSeconds.set(lagSeconds);
+        totalExpired.addAndGet(expired);
+        if (expired > 0) {
+            log.info("Expired {} waiting bookings, the oldest started {} s ago", expired, lagSeconds);
+        }
+    }
+
+    /**
+     * Number of bookings expired by the most recent run.
+     */
+    @ManagedAttribute
+    public long getLastRunExpired() {
+        return lastRunExpired.get();
+    }
+
+    /**
+     * How long the oldest booking expired by the most recent run had been waiting past its start, in seconds.
+     */
+    @ManagedAttribute
+    public long getLastRunLagSeconds() {
+        return lastRunLagSeconds.get();
+    }
+
+    @ManagedAttribute
+    public long getTotalExpired() {
+        return totalExpired.get();
+    }
+
+    private Chunk expireChunk(LocalDateTime now, LocalDateTime lastStart, long lastId) {
+        List<Booking> chunk = bookingRepository.findExpirableAfter(now, lastStart, lastId,
+                PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            return new Chunk(chunk, 0, null);
+        }
+        Set<Long> expiredIds = bookingRepository.expireAll(chunk.stream()
+                .map(Booking::getId)
+                .sorted()
+                .collect(Collectors.toList()), now);
+        List<Booking> expired = chunk.stream()
+                .filter(booking -> expiredIds.contains(booking.getId()))
+                .collect(Collectors.toList());
+        Set<Long> itemIds = expired.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        itemLocks.lockAllUntilCompletion(itemIds);
+        for (Booking booking : expired) {
+            Long itemId = booking.getItem().getId();
+            intervalIndex.remove(itemId, booking.getId(), booking.getStart());
+            bookingSummaries.onRejected(itemId, booking.getId());
+            BookingDto event = BookingMapper.toBookingDto(booking);
+            event.setStatus(BookingStatus.EXPIRED);
+            events.publish(booking.getItem().getOwnerId(), BookingEventType.STATUS_CHANGED, event);
+            stats.invalidate(booking.getItem().getOwnerId());
+        }
+        itemIds.forEach(availabilityIndex::invalidate);
+        return new Chunk(chunk, expired.size(), expired.isEmpty() ? null : expired.get(0).getStart());
+    }
+
+    private static final class Chunk {
+        private final List<Booking> bookings;
+        private final int expired;
+        private final LocalDateTime oldestExpired;
+
+        private Chunk(List<Booking> bookings, int expired, LocalDateTime oldestExpired) {
+            this.bookings = bookings;
+            this.expired = expired;
+            this.oldestExpired = oldestExpired;
+        }
+    }
+}
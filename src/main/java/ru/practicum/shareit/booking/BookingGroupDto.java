@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.groups.Inpute;
+
+import javax.validation.constraints.Future;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookingGroupDto {
+    @NotEmpty(groups = {Inpute.class})
+    @Size(max = 50, groups = {Inpute.class})
+    private List<@NotNull(groups = {Inpute.class}) Long> itemIds;
+    @NotNull(groups = {Inpute.class})
+    @FutureOrPresent(groups = {Inpute.class})
+    private LocalDateTime start;
+    @NotNull(groups = {Inpute.class})
+    @Future(groups = {Inpute.class})
+    private LocalDateTime end;
+}
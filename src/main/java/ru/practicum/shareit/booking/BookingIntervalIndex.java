@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-item interval trees of WAITING and APPROVED bookings. A tree is loaded from the database on the
+ * first check for its item and is then kept current by committed booking writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    public Optional<Long> findOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.computeIfAbsent(itemId, this::load);
+        synchronized (tree) {
+            return Optional.ofNullable(tree.findOverlap(start, end));
+        }
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        TransactionCallbacks.afterCommit(() -> trees.computeIfPresent(itemId, (id, tree) -> {
+            synchronized (tree) {
+                tree.insert(bookingId, start, end);
+            }
+            return tree;
+        }));
+    }
+
+    public void remove(Long itemId, Long bookingId, LocalDateTime start) {
+        TransactionCallbacks.afterCommit(() -> trees.computeIfPresent(itemId, (id, tree) -> {
+            synchronized (tree) {
+                tree.remove(bookingId, start);
+            }
+            return tree;
+        }));
+    }
+
+    private IntervalTree load(Long itemId) {
+        IntervalTree tree = new IntervalTree();
+        bookingRepository.findByItemIdAndStatusInAndEndIsAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> tree.insert(booking.getId(), booking.getStart(), booking.getEnd()));
+        return tree;
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 
 import java.util.List;
@@ -21,6 +23,39 @@ public class BookingMapper {
                 .build();
     }
 
+    public static Booking toBooking(ArchivedBooking archived) {
+        return Booking.builder()
+                .id(archived.getId())
+                .start(archived.getStart())
+                .end(archived.getEnd())
+                .item(archived.getItem())
+                .booker(archived.getBooker())
+                .status(archived.getStatus())
+                .version(archived.getVersion())
+                .build();
+    }
+
+    public static BookingDto toBookingDto(Booking booking, BookingTarget target) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .booker(UserDto.builder()
+                        .id(target.getBookerId())
+                        .name(target.getBookerName())
+                        .email(target.getBookerEmail())
+                        .build())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(ItemDto.builder()
+                        .id(target.getItemId())
+                        .name(target.getItemName())
+                        .description(target.getItemDescription())
+                        .available(target.getAvailable())
+                        .requestId(target.getRequestId())
+                        .build())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static List<BookingDto> toBookingDto(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingDto)
@@ -35,4 +70,28 @@ public class BookingMapper {
                 .end(booking.getEnd())
                 .build();
     }
+
+    public static BookingDto toLastBookingDto(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null) {
+            return null;
+        }
+        return BookingDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .start(summary.getLastStart())
+                .end(summary.getLastEnd())
+                .build();
+    }
+
+    public static BookingDto toNextBookingDto(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null) {
+            return null;
+        }
+        return BookingDto.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .start(summary.getNextStart())
+                .end(summary.getNextEnd())
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps monthly partitions of {@code bookings} created ahead of time when schema-postgresql-partitioned.sql has
+ * partitioned the table. Does nothing on other databases or on an unpartitioned table.
+ */
+@Slf4j
+@Component
+public class BookingPartitionMaintenance {
+    private static final String IS_PARTITIONED = "SELECT COUNT(*) FROM pg_partitioned_table p "
+            + "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = 'bookings'";
+    private static final String PARTITION_BOUNDS = "SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'bookings'::regclass";
+    private static final String CREATE_PARTITION = "CREATE TABLE IF NOT EXISTS bookings_p%s PARTITION OF bookings "
+            + "FOR VALUES FROM ('%s') TO ('%s')";
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})[^']*'\\)");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private volatile Boolean partitioned;
+
+    public BookingPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                       @Value("${shareit.booking-partitions.months-ahead:12}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking-partitions.cron:0 0 3 * * *}")
+    public void createPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        LocalDate until = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+        LocalDate from = latestUpperBound();
+        for (LocalDate month = from; month.isBefore(until); month = month.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute(String.format(CREATE_PARTITION, month.format(SUFFIX), month,
+                        month.plusMonths(1)));
+            } catch (DataAccessException e) {
+                log.warn("Bookings partition for {} was not created: {}", month.format(SUFFIX), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private LocalDate latestUpperBound() {
+        LocalDate latest = LocalDate.now().withDayOfMonth(1);
+        List<String> bounds = jdbcTemplate.queryForList(PARTITION_BOUNDS, String.class);
+        for (String bound : bounds) {
+            Matcher matcher = UPPER_BOUND.matcher(bound);
+            if (matcher.find()) {
+                LocalDate upper = LocalDate.parse(matcher.group(1));
+                if (upper.isAfter(latest)) {
+                    latest = upper;
+                }
+            }
+        }
+        return latest.withDayOfMonth(1);
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = detectPartitioning();
+        }
+        return partitioned;
+    }
+
+    private boolean detectPartitioning() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (DatabaseDriver.fromProductName(product) != DatabaseDriver.POSTGRESQL) {
+                return false;
+            }
+            Integer count = jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class);
+            boolean result = Objects.requireNonNull(count) > 0;
+            log.info("Bookings table is {}partitioned", result ? "" : "not ");
+            return result;
+        } catch (DataAccessException e) {
+            log.warn("Unable to detect bookings partitioning, partitions will not be maintained.", e);
+            return false;
+        }
+    }
+}
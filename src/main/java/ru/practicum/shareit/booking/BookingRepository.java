@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,74 +10,216 @@ import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingBatchRepository {
 
-    @Modifying
-    @Query("UPDATE Booking b "
-            + "SET b.status = :status  "
-            + "WHERE b.id = :bookingId")
-    void save(@Param("status") BookingStatus status, @Param("bookingId") Long bookingId);
-
-    List<Booking> findByBookerId(Long id, Pageable page);
-
-    List<Booking> findByBookerIdAndStatusIs(Long id, BookingStatus status, Pageable page);
-
-    List<Booking> findByBookerIdAndEndIsAfterAndStartIsBefore(Long id, LocalDateTime end,
-                                                              LocalDateTime start, Pageable page);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByBookerIdAndEndIsBefore(Long id, LocalDateTime time, Pageable page);
-
-    List<Booking> findByBookerIdAndStartIsAfter(Long id, LocalDateTime time, Pageable page);
-
-    List<Booking> findByBookerIdAndStartIsAfterAndStatusIs(Long bookerId, LocalDateTime start,
-                                                           BookingStatus status, Pageable page);
+    /**
+     * Moves a waiting booking of one of the owner's items to the given status. Returns 0 when the booking does
+     * not exist, belongs to another owner or has already been decided.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b "
+            + "SET b.status = :status, b.version = b.version + 1 "
+            + "WHERE b.id = :bookingId AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING "
+            + "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.ownerId = :ownerId)")
+    int decide(@Param("bookingId") Long bookingId, @Param("ownerId") Long ownerId,
+               @Param("status") BookingStatus status);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id IN :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingTarget(i.id, i.name, i.description, i.available, "
+            + "i.ownerId, i.itemRequest.id, u.id, u.name, u.email) "
+            + "FROM Item i, User u "
+            + "WHERE i.id = :itemId AND u.id = :bookerId")
+    Optional<BookingTarget> findBookingTarget(@Param("itemId") Long itemId, @Param("bookerId") Long bookerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :id")
+    List<Booking> findByBookerId(@Param("id") Long id, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :id AND b.status = :status")
+    List<Booking> findByBookerIdAndStatusIs(@Param("id") Long id, @Param("status") BookingStatus status,
+                                            Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :id AND b.end > :end AND b.start < :start")
+    List<Booking> findByBookerIdAndEndIsAfterAndStartIsBefore(@Param("id") Long id, @Param("end") LocalDateTime end,
+                                                              @Param("start") LocalDateTime start, Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :id AND b.end < :time")
+    List<Booking> findByBookerIdAndEndIsBefore(@Param("id") Long id, @Param("time") LocalDateTime time,
+                                               Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :id AND b.start > :time")
+    List<Booking> findByBookerIdAndStartIsAfter(@Param("id") Long id, @Param("time") LocalDateTime time,
+                                                Pageable page);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :start AND b.status = :status")
+    List<Booking> findByBookerIdAndStartIsAfterAndStatusIs(@Param("bookerId") Long bookerId,
+                                                           @Param("start") LocalDateTime start,
+                                                           @Param("status") BookingStatus status, Pageable page);
 
-    @Query("SELECT b FROM Booking b " + "INNER JOIN Item i ON b.item.id = i.id "
+    @Query("SELECT b FROM Booking b "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId ")
     List<Booking> findByItemOwnerId(@Param("ownerId") Long ownerId, Pageable page);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "WHERE b.booker.id = :bookerId "
+            + "AND (b.start, b.id) < (:cursorStart, :cursorId) "
+            + "AND b.status IN :statuses AND b.start > :startAfter AND b.end > :endAfter AND b.end < :endBefore "
+            + "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findByBookerIdBeforeCursor(@Param("bookerId") Long bookerId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId,
+                                             @Param("statuses") Collection<BookingStatus> statuses,
+                                             @Param("startAfter") LocalDateTime startAfter,
+                                             @Param("endAfter") LocalDateTime endAfter,
+                                             @Param("endBefore") LocalDateTime endBefore,
+                                             Pageable page);
+
+    @Query("SELECT b FROM Booking b "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
+            + "WHERE i.ownerId = :ownerId "
+            + "AND (b.start, b.id) < (:cursorStart, :cursorId) "
+            + "AND b.status IN :statuses AND b.start > :startAfter AND b.end > :endAfter AND b.end < :endBefore "
+            + "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findByItemOwnerIdBeforeCursor(@Param("ownerId") Long ownerId,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("startAfter") LocalDateTime startAfter,
+                                                @Param("endAfter") LocalDateTime endAfter,
+                                                @Param("endBefore") LocalDateTime endBefore,
+                                                Pageable page);
+
+    @Query("SELECT b FROM Booking b "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId "
             + "AND :time between b.start AND b.end ")
     List<Booking> findCurrentBookingsOwner(@Param("ownerId") Long ownerId, LocalDateTime time, Pageable page);
 
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId "
             + "AND b.end < :time ")
     List<Booking> findPastBookingsOwner(@Param("ownerId") Long ownerId, LocalDateTime time, Pageable page);
 
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId "
             + "AND b.start > :time ")
     List<Booking> findFutureBookingsOwner(@Param("ownerId") Long ownerId, LocalDateTime time, Pageable page);
 
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId "
             + "AND b.start > :time AND b.status = :status ")
     List<Booking> findWaitingBookingsOwner(@Param("ownerId") Long ownerId, LocalDateTime time, BookingStatus status, Pageable page);
 
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.ownerId = :ownerId "
             + "AND b.status = :status ")
     List<Booking> findRejectedBookingsOwner(@Param("ownerId") Long ownerId, BookingStatus status, Pageable page);
 
     @Query("SELECT b FROM Booking b "
-            + "INNER JOIN Item i ON b.item.id = i.id "
+            + "JOIN FETCH b.item i JOIN FETCH b.booker "
             + "WHERE i.id = :itemId "
             + "ORDER BY b.start DESC")
     List<Booking> findBookingsItem(Long itemId);
 
-    List<Booking> findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(Long itemId,
-                                                                   Long bookerId,
-                                                                   BookingStatus status,
-                                                                   LocalDateTime time);
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId,
+                                                           Long bookerId,
+                                                           BookingStatus status,
+                                                           LocalDateTime time);
 
     List<Booking> findByItemIn(List<Item> items, Sort sort);
+
+    @Query(value = "SELECT * FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn "
+            + "FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.status NOT IN ('REJECTED', 'EXPIRED') "
+            + "AND b.start_date < :now) AS last_booking "
+            + "WHERE rn = 1 "
+            + "UNION ALL "
+            + "SELECT * FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date) AS rn "
+            + "FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.status NOT IN ('REJECTED', 'EXPIRED') "
+            + "AND b.start_date > :now) AS next_booking "
+            + "WHERE rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Keyset page over waiting bookings that started before {@code now}, ordered by (start, id) after the given
+     * position.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker "
+            + "WHERE b.status = ru.practicum.shareit.booking.BookingStatus.WAITING AND b.start < :now "
+            + "AND (b.start > :lastStart OR (b.start = :lastStart AND b.id > :lastId)) "
+            + "ORDER BY b.start, b.id")
+    List<Booking> findExpirableAfter(@Param("now") LocalDateTime now, @Param("lastStart") LocalDateTime lastStart,
+                                     @Param("lastId") Long lastId, Pageable page);
+
+    /**
+     * Bookings that ended before {@code cutoff} and are not referenced by an item booking summary.
+     */
+    @Query("SELECT b FROM Booking b "
+            + "WHERE b.end < :cutoff AND b.status IN :statuses "
+            + "AND b.id NOT IN (SELECT s.lastBookingId FROM ItemBookingSummary s WHERE s.lastBookingId IS NOT NULL) "
+            + "AND b.id NOT IN (SELECT s.nextBookingId FROM ItemBookingSummary s WHERE s.nextBookingId IS NOT NULL) "
+            + "ORDER BY b.id")
+    List<Booking> findArchivable(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("statuses") Collection<BookingStatus> statuses, Pageable page);
+
+    /**
+     * Counts the owner's bookings per {@link State} in one pass, using the same conditions and tables as the owner
+     * history queries: archived bookings count towards {@code total} and {@code pastCount} only, like they are merged
+     * into the ALL and PAST lists only.
+     */
+    @Query(value = "SELECT COUNT(*) AS total, "
+            + "COALESCE(SUM(CASE WHEN b.start_date <= :now AND b.end_date >= :now THEN 1 ELSE 0 END), 0) "
+            + "AS currentCount, "
+            + "COALESCE(SUM(CASE WHEN b.end_date < :now THEN 1 ELSE 0 END), 0) AS pastCount, "
+            + "COALESCE(SUM(CASE WHEN b.start_date > :now THEN 1 ELSE 0 END), 0) AS futureCount, "
+            + "COALESCE(SUM(CASE WHEN b.archived = 0 AND b.start_date > :now AND b.status = 'WAITING' THEN 1 ELSE 0 END), "
+            + "0) AS waitingCount, "
+            + "COALESCE(SUM(CASE WHEN b.archived = 0 AND b.status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejectedCount, "
+            + "MIN(CASE WHEN b.start_date > :now THEN b.start_date END) AS nextStart, "
+            + "MIN(CASE WHEN b.end_date >= :now THEN b.end_date END) AS nextEnd "
+            + "FROM items i "
+            + "JOIN (SELECT item_id, start_date, end_date, status, 0 AS archived FROM bookings "
+            + "UNION ALL SELECT item_id, start_date, end_date, status, 1 AS archived FROM bookings_archive) b "
+            + "ON b.item_id = i.id "
+            + "WHERE i.owner_id = :ownerId",
+            nativeQuery = true)
+    BookingStats countByOwnerPerState(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b "
+            + "WHERE b.item.id IN :itemIds AND b.status IN :statuses AND b.end > :start AND b.start < :end")
+    Set<Long> findBookedItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                @Param("statuses") Collection<BookingStatus> statuses,
+                                @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    List<Booking> findByItemIdAndStatusInAndEndIsAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                       LocalDateTime time);
+
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                                   LocalDateTime end, LocalDateTime start);
 }
\ No newline at end of file
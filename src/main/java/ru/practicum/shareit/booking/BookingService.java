@@ -1,24 +1,40 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.OperationAccessException;
 import ru.practicum.shareit.exception.TimeDataException;
 import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.comment.CommentEligibilityCache;
+import ru.practicum.shareit.lock.StripedLock;
 import ru.practicum.shareit.page.CustomPageRequest;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -26,37 +42,198 @@ import java.util.List;
 public class BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
-    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final StripedLock itemLocks;
+    private final ItemBookingSummaryService bookingSummaries;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingEventBroker events;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchiveService archive;
+    private final BookingStatsService stats;
+    private final CommentEligibilityCache commentEligibility;
+    private final UserExistenceService userExistence;
 
     public BookingDto create(BookingDto bookingDto, long bookerId) {
-        if (bookingDto.getEnd().isBefore(bookingDto.getStart()) ||
-                bookingDto.getEnd().equals(bookingDto.getStart())) {
-            throw new TimeDataException(String
-                    .format("Invalid booking time start = %s  end = %s",
-                            bookingDto.getStart(), bookingDto.getEnd()));
-        }
-        User booker = UserMapper.toUser(UserMapper.toUserDto(userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", bookerId)))));
-        Item item = ItemMapper.toItem(itemService.findItemById(bookingDto.getItemId(), bookerId));
-        if (itemService.findOwnerId(item.getId()) == bookerId) {
+        checkTime(bookingDto.getStart(), bookingDto.getEnd());
+        Long itemId = bookingDto.getItemId();
+        BookingTarget target = bookingRepository.findBookingTarget(itemId, bookerId)
+                .orElseThrow(() -> missingBookingTarget(itemId, bookerId));
+        if (target.getOwnerId() == bookerId) {
             throw new OperationAccessException("The owner cannot be a booker.");
         }
-        if (item.getAvailable()) {
+        if (target.getAvailable()) {
+            itemLocks.lockUntilCompletion(itemId);
+            intervalIndex.findOverlap(itemId, bookingDto.getStart(), bookingDto.getEnd())
+                    .ifPresent(overlapId -> {
+                        throw new NotAvailableException(String.format("Item with ID = %d is already booked by "
+                                + "booking with ID = %d for this time.", itemId, overlapId));
+                    });
             Booking booking = Booking.builder()
                     .start(bookingDto.getStart())
                     .end(bookingDto.getEnd())
-                    .item(item)
-                    .booker(booker)
+                    .item(itemRepository.getReferenceById(itemId))
+                    .booker(userRepository.getReferenceById(bookerId))
                     .status(BookingStatus.WAITING)
                     .build();
-            return BookingMapper.toBookingDto(bookingRepository.save(booking));
+            Booking saved = bookingRepository.save(booking);
+            intervalIndex.add(itemId, saved.getId(), saved.getStart(), saved.getEnd());
+            availabilityIndex.add(itemId, saved.getStart(), saved.getEnd());
+            bookingSummaries.onCreated(saved);
+            BookingDto created = BookingMapper.toBookingDto(saved, target);
+            publish(target.getOwnerId(), BookingEventType.CREATED, created);
+            return created;
         } else {
-            throw new NotAvailableException("Item with id = %d is not available.");
+            throw new NotAvailableException(String.format("Item with id = %d is not available.", itemId));
+        }
+    }
+
+    /**
+     * Books all items for the same window or none of them. Item locks are taken in one fixed order before any
+     * overlap check, so group bookings sharing items serialize instead of deadlocking.
+     */
+    public List<BookingDto> createGroup(BookingGroupDto group, long bookerId) {
+        checkTime(group.getStart(), group.getEnd());
+        Set<Long> itemIds = new TreeSet<>(group.getItemIds());
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", bookerId)));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new NotFoundException(String.format("Item with ID = %d not found.", itemId));
+            }
+            if (item.getOwnerId() == bookerId) {
+                throw new OperationAccessException("The owner cannot be a booker.");
+            }
+            if (!item.getAvailable()) {
+                throw new NotAvailableException(String.format("Item with id = %d is not available.", itemId));
+            }
+        }
+        itemLocks.lockAllUntilCompletion(itemIds);
+        List<Booking> bookings = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            intervalIndex.findOverlap(itemId, group.getStart(), group.getEnd())
+                    .ifPresent(overlapId -> {
+                        throw new NotAvailableException(String.format("Item with ID = %d is already booked by "
+                                + "booking with ID = %d for this time.", itemId, overlapId));
+                    });
+            bookings.add(Booking.builder()
+                    .start(group.getStart())
+                    .end(group.getEnd())
+                    .item(items.get(itemId))
+                    .booker(booker)
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        bookingRepository.insertAll(bookings);
+        for (Booking booking : bookings) {
+            intervalIndex.add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            availabilityIndex.add(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            bookingSummaries.onCreated(booking);
+        }
+        List<BookingDto> created = BookingMapper.toBookingDto(bookings);
+        for (int i = 0; i < bookings.size(); i++) {
+            publish(bookings.get(i).getItem().getOwnerId(), BookingEventType.CREATED, created.get(i));
+        }
+        return created;
+    }
+
+    /**
+     * Validates the whole batch in memory against one read of the booker and one of the items, then inserts the
+     * accepted entries in one JDBC batch. Rejected entries are reported and do not abort the others.
+     */
+    public List<BookingCreationResultDto> createAll(List<BookingDto> bookingDtos, long bookerId) {
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", bookerId)));
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        itemLocks.lockAllUntilCompletion(items.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, IntervalTree> accepted = new HashMap<>();
+        List<BookingCreationResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingCreationResultDto> created = new ArrayList<>();
+        for (int index = 0; index < bookingDtos.size(); index++) {
+            BookingDto bookingDto = bookingDtos.get(index);
+            Item item = items.get(bookingDto.getItemId());
+            BookingCreationOutcome outcome = checkCreation(bookingDto, item, bookerId, now, accepted);
+            BookingCreationResultDto result = new BookingCreationResultDto(index, outcome, null);
+            if (outcome == BookingCreationOutcome.CREATED) {
+                accepted.computeIfAbsent(item.getId(), id -> new IntervalTree())
+                        .insert(index, bookingDto.getStart(), bookingDto.getEnd());
+                bookings.add(Booking.builder()
+                        .start(bookingDto.getStart())
+                        .end(bookingDto.getEnd())
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+                created.add(result);
+            }
+            results.add(result);
+        }
+        if (bookings.isEmpty()) {
+            return results;
+        }
+        bookingRepository.insertAll(bookings);
+        Map<Long, Booking> earliestByItem = new HashMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            Long itemId = booking.getItem().getId();
+            intervalIndex.add(itemId, booking.getId(), booking.getStart(), booking.getEnd());
+            availabilityIndex.add(itemId, booking.getStart(), booking.getEnd());
+            earliestByItem.merge(itemId, booking, (a, b) -> a.getStart().isAfter(b.getStart()) ? b : a);
+            created.get(i).setBooking(BookingMapper.toBookingDto(booking));
+            publish(booking.getItem().getOwnerId(), BookingEventType.CREATED, created.get(i).getBooking());
         }
+        earliestByItem.values().forEach(bookingSummaries::onCreated);
+        return results;
+    }
+
+    private BookingCreationOutcome checkCreation(BookingDto bookingDto, Item item, long bookerId, LocalDateTime now,
+                                                 Map<Long, IntervalTree> accepted) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null || bookingDto.getStart().isBefore(now)
+                || !bookingDto.getEnd().isAfter(bookingDto.getStart())) {
+            return BookingCreationOutcome.INVALID_TIME;
+        }
+        if (item == null) {
+            return BookingCreationOutcome.ITEM_NOT_FOUND;
+        }
+        if (item.getOwnerId() == bookerId) {
+            return BookingCreationOutcome.OWN_ITEM;
+        }
+        if (!item.getAvailable()) {
+            return BookingCreationOutcome.NOT_AVAILABLE;
+        }
+        IntervalTree batch = accepted.get(item.getId());
+        if (batch != null && batch.findOverlap(bookingDto.getStart(), bookingDto.getEnd()) != null
+                || intervalIndex.findOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd()).isPresent()) {
+            return BookingCreationOutcome.OVERLAP;
+        }
+        return BookingCreationOutcome.CREATED;
+    }
+
+    private static void checkTime(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new TimeDataException(String.format("Invalid booking time start = %s  end = %s", start, end));
+        }
+    }
+
+    private NotFoundException missingBookingTarget(Long itemId, Long bookerId) {
+        if (!userExistence.exists(bookerId)) {
+            return new NotFoundException(String.format("User with ID = %d not found.", bookerId));
+        }
+        return new NotFoundException(String.format("Item with ID = %d not found.", itemId));
     }
 
     public BookingDto findBookingById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId).map(BookingMapper::toBooking))
                 .orElseThrow(() -> new NotFoundException(String.format("Booking with ID = %d not found.", bookingId)));
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwnerId().equals(userId)) {
             return BookingMapper.toBookingDto(booking);
@@ -66,20 +243,22 @@ public class BookingService {
     }
 
     public List<BookingDto> findAllBookingsByUser(State state, Long userId, int from, int size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", userId)));
+        userExistence.checkExists(userId);
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         Pageable page = new CustomPageRequest(from, size, sort);
         LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return BookingMapper.toBookingDto(bookingRepository.findByBookerId(userId, page));
+                return BookingMapper.toBookingDto(withArchive(page,
+                        hotPage -> bookingRepository.findByBookerId(userId, hotPage),
+                        archivedPage -> archivedBookingRepository.findByBookerId(userId, archivedPage)));
             case CURRENT:
                 return BookingMapper.toBookingDto(bookingRepository
                         .findByBookerIdAndEndIsAfterAndStartIsBefore(userId, now, now, page));
             case PAST:
-                return BookingMapper.toBookingDto(bookingRepository
-                        .findByBookerIdAndEndIsBefore(userId, now, page));
+                return BookingMapper.toBookingDto(withArchive(page,
+                        hotPage -> bookingRepository.findByBookerIdAndEndIsBefore(userId, now, hotPage),
+                        archivedPage -> archivedBookingRepository.findByBookerId(userId, archivedPage)));
             case FUTURE:
                 return BookingMapper.toBookingDto(bookingRepository
                         .findByBookerIdAndStartIsAfter(userId, now, page));
@@ -96,18 +275,21 @@ public class BookingService {
     }
 
     public List<BookingDto> findAllBookingsByOwner(State state, Long ownerId, int from, int size) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", ownerId)));
+        userExistence.checkExists(ownerId);
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         Pageable page = new CustomPageRequest(from, size, sort);
         LocalDateTime now = LocalDateTime.now();
         switch (state) {
             case ALL:
-                return BookingMapper.toBookingDto(bookingRepository.findByItemOwnerId(ownerId, page));
+                return BookingMapper.toBookingDto(withArchive(page,
+                        hotPage -> bookingRepository.findByItemOwnerId(ownerId, hotPage),
+                        archivedPage -> archivedBookingRepository.findByItemOwnerId(ownerId, archivedPage)));
             case CURRENT:
                 return BookingMapper.toBookingDto(bookingRepository.findCurrentBookingsOwner(ownerId, now, page));
             case PAST:
-                return BookingMapper.toBookingDto(bookingRepository.findPastBookingsOwner(ownerId, now, page));
+                return BookingMapper.toBookingDto(withArchive(page,
+                        hotPage -> bookingRepository.findPastBookingsOwner(ownerId, now, hotPage),
+                        archivedPage -> archivedBookingRepository.findByItemOwnerId(ownerId, archivedPage)));
             case FUTURE:
                 return BookingMapper.toBookingDto(bookingRepository.findFutureBookingsOwner(ownerId, now, page));
             case WAITING:
@@ -120,23 +302,223 @@ public class BookingService {
         throw new NotAvailableException(String.format("Unknown state: %s", state));
     }
 
+    public BookingStatsDto findStatsByOwner(Long ownerId) {
+        return stats.findByOwner(ownerId);
+    }
+
+    public SseEmitter subscribeOwner(Long ownerId) {
+        userExistence.checkExists(ownerId);
+        return events.subscribe(ownerId);
+    }
+
+    public BookingPageDto findBookingPageByUser(State state, Long userId, String cursor, int size) {
+        userExistence.checkExists(userId);
+        return findBookingPage(state, cursor, size, (position, statuses, startAfter, endAfter, endBefore, page) ->
+                        bookingRepository.findByBookerIdBeforeCursor(userId, position.getStart(), position.getId(),
+                                statuses, startAfter, endAfter, endBefore, page),
+                (position, page) -> archivedBookingRepository.findByBookerIdBeforeCursor(userId,
+                        position.getStart(), position.getId(), page));
+    }
+
+    public BookingPageDto findBookingPageByOwner(State state, Long ownerId, String cursor, int size) {
+        userExistence.checkExists(ownerId);
+        return findBookingPage(state, cursor, size, (position, statuses, startAfter, endAfter, endBefore, page) ->
+                        bookingRepository.findByItemOwnerIdBeforeCursor(ownerId, position.getStart(), position.getId(),
+                                statuses, startAfter, endAfter, endBefore, page),
+                (position, page) -> archivedBookingRepository.findByItemOwnerIdBeforeCursor(ownerId,
+                        position.getStart(), position.getId(), page));
+    }
+
+    private BookingPageDto findBookingPage(State state, String cursor, int size, CursorQuery query,
+                                           ArchivedCursorQuery archivedQuery) {
+        BookingCursor position = BookingCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        Collection<BookingStatus> statuses = EnumSet.allOf(BookingStatus.class);
+        LocalDateTime startAfter = BookingCursor.MIN_TIME;
+        LocalDateTime endAfter = BookingCursor.MIN_TIME;
+        LocalDateTime endBefore = BookingCursor.MAX_TIME;
+        boolean archived = false;
+        switch (state) {
+            case ALL:
+                archived = true;
+                break;
+            case CURRENT:
+                position = position.before(now);
+                endAfter = now;
+                break;
+            case PAST:
+                endBefore = now;
+                archived = true;
+                break;
+            case FUTURE:
+                startAfter = now;
+                break;
+            case WAITING:
+                startAfter = now;
+                statuses = EnumSet.of(BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                statuses = EnumSet.of(BookingStatus.REJECTED);
+                break;
+            default:
+                throw new NotAvailableException(String.format("Unknown state: %s", state));
+        }
+        List<Booking> bookings = query.find(position, statuses, startAfter, endAfter, endBefore,
+                PageRequest.of(0, size));
+        if (archived && archive.reachesArchive(bookings, size)) {
+            bookings = mergeByStartDesc(bookings, archivedQuery.find(position, PageRequest.of(0, size)), size);
+        }
+        String nextCursor = bookings.size() == size
+                ? BookingCursor.after(bookings.get(bookings.size() - 1)).encode()
+                : null;
+        return new BookingPageDto(BookingMapper.toBookingDto(bookings), nextCursor);
+    }
+
+    /**
+     * Runs an offset history query against the hot table and, only when the page reaches the archived range,
+     * merges the first {@code offset + size} rows of both tables to cut the page out of the combined order.
+     */
+    private List<Booking> withArchive(Pageable page, Function<Pageable, List<Booking>> hotQuery,
+                                      Function<Pageable, List<ArchivedBooking>> archivedQuery) {
+        List<Booking> hot = hotQuery.apply(page);
+        if (!archive.reachesArchive(hot, page.getPageSize())) {
+            return hot;
+        }
+        int offset = (int) page.getOffset();
+        int limit = offset + page.getPageSize();
+        List<Booking> merged = mergeByStartDesc(hotQuery.apply(PageRequest.of(0, limit, page.getSort())),
+                archivedQuery.apply(PageRequest.of(0, limit)), limit);
+        return merged.subList(Math.min(offset, merged.size()), merged.size());
+    }
+
+    private static List<Booking> mergeByStartDesc(List<Booking> hot, List<ArchivedBooking> archived, int limit) {
+        List<Booking> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        archived.forEach(booking -> merged.add(BookingMapper.toBooking(booking)));
+        merged.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Reads the booking with its item and booker in one query and applies the decision with a conditional update,
+     * which reports a booking decided concurrently since the read. A rejection takes the item lock before the
+     * update, in the same order as booking creation.
+     */
     public BookingDto approve(long bookingId, long userId, Boolean approve) {
-        BookingDto booking = findBookingById(bookingId, userId);
-        Long ownerId = itemService.findOwnerId(booking.getItem().getId());
-        if (ownerId.equals(userId)
-                && !booking.getStatus().equals(BookingStatus.WAITING)) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Booking with ID = %d not found.", bookingId)));
+        if (!booking.getItem().getOwnerId().equals(userId)) {
+            throw new OperationAccessException(String.format("User with ID = %d is not the owner, no access to booking.", userId));
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
             throw new NotAvailableException("The booking decision has already been made.");
         }
-        if (!ownerId.equals(userId)) {
-            throw new OperationAccessException(String.format("User with ID = %d is not the owner, no access to booking.", userId));
+        Long itemId = booking.getItem().getId();
+        BookingStatus status = approve ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (!approve) {
+            itemLocks.lockUntilCompletion(itemId);
+        }
+        if (bookingRepository.decide(bookingId, userId, status) == 0) {
+            throw new NotAvailableException("The booking decision has already been made.");
         }
+        booking.setStatus(status);
         if (approve) {
-            booking.setStatus(BookingStatus.APPROVED);
-            bookingRepository.save(BookingStatus.APPROVED, bookingId);
+            intervalIndex.add(itemId, bookingId, booking.getStart(), booking.getEnd());
+            commentEligibility.onApproved(booking.getBooker().getId(), itemId, booking.getEnd());
         } else {
-            booking.setStatus(BookingStatus.REJECTED);
-            bookingRepository.save(BookingStatus.REJECTED, bookingId);
+            intervalIndex.remove(itemId, bookingId, booking.getStart());
+            availabilityIndex.invalidate(itemId);
+            bookingSummaries.onRejected(itemId, bookingId);
+        }
+        BookingDto decided = BookingMapper.toBookingDto(booking);
+        publish(booking.getItem().getOwnerId(), BookingEventType.STATUS_CHANGED, decided);
+        return decided;
+    }
+
+    /**
+     * Loads all bookings with one query, checks them in memory and applies the remaining transitions in one
+     * JDBC batch. A booking decided concurrently between the check and the batch is reported as already decided.
+     */
+    public List<BookingDecisionResultDto> decideAll(long ownerId, List<BookingDecisionDto> decisions) {
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Map<Long, BookingDecisionResultDto> firstResults = new HashMap<>();
+        Map<Long, BookingStatus> pending = new TreeMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingDecisionResultDto result = new BookingDecisionResultDto(bookingId,
+                    checkDecision(bookings.get(bookingId), ownerId, decision.getApproved()));
+            if (firstResults.putIfAbsent(bookingId, result) != null) {
+                result.setOutcome(BookingDecisionOutcome.DUPLICATE);
+            } else if (result.getOutcome() == BookingDecisionOutcome.APPROVED) {
+                pending.put(bookingId, BookingStatus.APPROVED);
+            } else if (result.getOutcome() == BookingDecisionOutcome.REJECTED) {
+                pending.put(bookingId, BookingStatus.REJECTED);
+            }
+            results.add(result);
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+        Set<Long> decided = bookingRepository.decideAll(ownerId, pending);
+        List<Booking> rejected = new ArrayList<>();
+        pending.forEach((bookingId, status) -> {
+            Booking booking = bookings.get(bookingId);
+            if (!decided.contains(bookingId)) {
+                firstResults.get(bookingId).setOutcome(BookingDecisionOutcome.ALREADY_DECIDED);
+                return;
+            }
+            BookingDto event = BookingMapper.toBookingDto(booking);
+            event.setStatus(status);
+            publish(ownerId, BookingEventType.STATUS_CHANGED, event);
+            if (status == BookingStatus.APPROVED) {
+                intervalIndex.add(booking.getItem().getId(), bookingId, booking.getStart(), booking.getEnd());
+                commentEligibility.onApproved(booking.getBooker().getId(), booking.getItem().getId(),
+                        booking.getEnd());
+            } else {
+                intervalIndex.remove(booking.getItem().getId(), bookingId, booking.getStart());
+                availabilityIndex.invalidate(booking.getItem().getId());
+                rejected.add(booking);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            itemLocks.lockAllUntilCompletion(rejected.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toList()));
+            rejected.forEach(booking -> bookingSummaries.onRejected(booking.getItem().getId(), booking.getId()));
         }
-        return booking;
+        return results;
+    }
+
+    private void publish(Long ownerId, BookingEventType type, BookingDto booking) {
+        events.publish(ownerId, type, booking);
+        stats.invalidate(ownerId);
+    }
+
+    private static BookingDecisionOutcome checkDecision(Booking booking, long ownerId, boolean approve) {
+        if (booking == null) {
+            return BookingDecisionOutcome.NOT_FOUND;
+        }
+        if (!booking.getItem().getOwnerId().equals(ownerId)) {
+            return BookingDecisionOutcome.NOT_OWNER;
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return BookingDecisionOutcome.ALREADY_DECIDED;
+        }
+        return approve ? BookingDecisionOutcome.APPROVED : BookingDecisionOutcome.REJECTED;
+    }
+
+    @FunctionalInterface
+    private interface CursorQuery {
+        List<Booking> find(BookingCursor position, Collection<BookingStatus> statuses, LocalDateTime startAfter,
+                           LocalDateTime endAfter, LocalDateTime endBefore, Pageable page);
+    }
+
+    @FunctionalInterface
+    private interface ArchivedCursorQuery {
+        List<ArchivedBooking> find(BookingCursor position, Pageable page);
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-state booking counts of one owner at a point in time, with the nearest start and end after it. The counts
+ * stay correct until the clock passes one of those two moments.
+ */
+public interface BookingStats {
+    long getTotal();
+
+    long getCurrentCount();
+
+    long getPastCount();
+
+    long getFutureCount();
+
+    long getWaitingCount();
+
+    long getRejectedCount();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+import ru.practicum.shareit.user.UserExistenceService;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches owner booking counts per state. An entry is dropped when one of the owner's bookings is written and is
+ * not used once the clock reaches the next booking start or end, where a booking moves between states. Loaded
+ * counts are cached under the lock that invalidation takes, and only if the owner was not invalidated since the
+ * load started, so counts read before a write never outlive it while writes of other owners do not discard them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookingStatsService {
+    private final BookingRepository bookingRepository;
+    private final UserExistenceService userExistence;
+    private final Map<Long, CachedStats> cache;
+    private final AtomicLong version = new AtomicLong();
+    // Version of each owner's last invalidation, guarded by the cache lock. Owners missing from the map, including
+    // those it evicted, count as invalidated at invalidatedAtLeastAt.
+    private final Map<Long, Long> invalidatedAt;
+    private long invalidatedAtLeastAt;
+
+    public BookingStatsService(BookingRepository bookingRepository, UserExistenceService userExistence,
+                               @Value("${shareit.booking-stats.max-owners:10000}") int maxOwners) {
+        this.bookingRepository = bookingRepository;
+        this.userExistence = userExistence;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedStats> eldest) {
+                return size() > maxOwners;
+            }
+        });
+        this.invalidatedAt = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() <= maxOwners) {
+                    return false;
+                }
+                invalidatedAtLeastAt = Math.max(invalidatedAtLeastAt, eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public BookingStatsDto findByOwner(Long ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedStats cached = cache.get(ownerId);
+        if (cached != null && cached.isValidAt(now)) {
+            return cached.stats;
+        }
+        long loadedVersion = version.get();
+        userExistence.checkExists(ownerId);
+        BookingStats stats = bookingRepository.countByOwnerPerState(ownerId, now);
+        CachedStats loaded = new CachedStats(new BookingStatsDto(stats.getTotal(), stats.getCurrentCount(),
+                stats.getPastCount(), stats.getFutureCount(), stats.getWaitingCount(), stats.getRejectedCount()),
+                stats.getNextStart(), stats.getNextEnd());
+        synchronized (cache) {
+            if (Math.max(invalidatedAt.getOrDefault(ownerId, 0L), invalidatedAtLeastAt) <= loadedVersion) {
+                cache.put(ownerId, loaded);
+            }
+        }
+        return loaded.stats;
+    }
+
+    public void invalidate(Long ownerId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (cache) {
+                invalidatedAt.put(ownerId, version.incrementAndGet());
+                cache.remove(ownerId);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (cache) {
+                invalidatedAtLeastAt = version.incrementAndGet();
+                invalidatedAt.clear();
+                cache.clear();
+            }
+        });
+    }
+
+    private static final class CachedStats {
+        private final BookingStatsDto stats;
+        private final LocalDateTime nextStart;
+        private final LocalDateTime nextEnd;
+
+        private CachedStats(BookingStatsDto stats, LocalDateTime nextStart, LocalDateTime nextEnd) {
+            this.stats = stats;
+            this.nextStart = nextStart;
+            this.nextEnd = nextEnd;
+        }
+
+        private boolean isValidAt(LocalDateTime now) {
+            return (nextStart == null || now.isBefore(nextStart)) && (nextEnd == null || !now.isAfter(nextEnd));
+        }
+    }
+}
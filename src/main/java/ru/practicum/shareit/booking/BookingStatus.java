@@ -4,5 +4,6 @@ public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    DECLINED, COMPLETED
+    DECLINED, COMPLETED,
+    EXPIRED
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+/**
+ * Item and booker columns needed to validate and answer a booking request, read in one statement.
+ */
+@Value
+public class BookingTarget {
+    Long itemId;
+    String itemName;
+    String itemDescription;
+    Boolean available;
+    Long ownerId;
+    Long requestId;
+    Long bookerId;
+    String bookerName;
+    String bookerEmail;
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Read model holding the current last and next non-rejected booking of an item, so the owner item view
+ * does not have to scan the booking history.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public void setLast(Booking booking) {
+        lastBookingId = booking.getId();
+        lastBookerId = booking.getBooker().getId();
+        lastStart = booking.getStart();
+        lastEnd = booking.getEnd();
+    }
+
+    public void setNext(Booking booking) {
+        nextBookingId = booking.getId();
+        nextBookerId = booking.getBooker().getId();
+        nextStart = booking.getStart();
+        nextEnd = booking.getEnd();
+    }
+
+    public boolean references(Long bookingId) {
+        return Objects.equals(lastBookingId, bookingId) || Objects.equals(nextBookingId, bookingId);
+    }
+
+    /**
+     * The summary no longer reflects the bookings table once the next booking has started or a referenced
+     * booking has been deleted together with its booker.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return (nextStart != null && !nextStart.isAfter(now))
+                || (lastStart != null && lastBookingId == null)
+                || (nextStart != null && nextBookingId == null);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s "
+            + "WHERE s.nextStart <= :now "
+            + "OR (s.lastStart IS NOT NULL AND s.lastBookingId IS NULL) "
+            + "OR (s.nextStart IS NOT NULL AND s.nextBookingId IS NULL)")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s "
+            + "SET s.nextBookingId = :bookingId, s.nextBookerId = :bookerId, s.nextStart = :start, s.nextEnd = :end "
+            + "WHERE s.itemId = :itemId AND (s.nextStart IS NULL OR s.nextStart > :start)")
+    int updateNextIfEarlier(@Param("itemId") Long itemId, @Param("bookingId") Long bookingId,
+                            @Param("bookerId") Long bookerId, @Param("start") LocalDateTime start,
+                            @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary s "
+            + "SET s.lastBookingId = :bookingId, s.lastBookerId = :bookerId, s.lastStart = :start, s.lastEnd = :end "
+            + "WHERE s.itemId = :itemId AND (s.lastStart IS NULL OR s.lastStart < :start)")
+    int updateLastIfLater(@Param("itemId") Long itemId, @Param("bookingId") Long bookingId,
+                          @Param("bookerId") Long bookerId, @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end);
+}
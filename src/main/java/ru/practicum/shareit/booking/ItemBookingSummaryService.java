@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.lock.StripedLock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains {@link ItemBookingSummary} rows. Writers call it under the item lock held by {@link BookingService};
+ * a scheduled task rolls summaries forward once their next booking has started.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final StripedLock itemLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Items without a summary row (created before the read model existed) are answered from the bookings table.
+     */
+    @Transactional(readOnly = true)
+    public ItemBookingSummary find(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        return summaryRepository.findById(itemId)
+                .filter(summary -> !summary.isStale(now))
+                .orElseGet(() -> rebuild(itemId, now));
+    }
+
+    public void onItemCreated(Long itemId) {
+        summaryRepository.save(new ItemBookingSummary(itemId));
+    }
+
+    /**
+     * A single conditional update: the new booking replaces the summary's next (or last) booking only if it is
+     * closer to now. A summary whose next booking has already started stays stale and is rebuilt on read and by
+     * {@link #rollForward()}, which then also picks up this booking.
+     */
+    public void onCreated(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookerId = booking.getBooker().getId();
+        if (booking.getStart().isBefore(LocalDateTime.now())) {
+            summaryRepository.updateLastIfLater(itemId, booking.getId(), bookerId, booking.getStart(),
+                    booking.getEnd());
+        } else {
+            summaryRepository.updateNextIfEarlier(itemId, booking.getId(), bookerId, booking.getStart(),
+                    booking.getEnd());
+        }
+    }
+
+    public void onRejected(Long itemId, Long bookingId) {
+        summaryRepository.findById(itemId)
+                .filter(summary -> summary.references(bookingId))
+                .ifPresent(summary -> summaryRepository.save(rebuild(itemId, LocalDateTime.now())));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-forward-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rollForward() {
+        List<Long> staleItemIds = summaryRepository.findStaleItemIds(LocalDateTime.now());
+        for (Long itemId : staleItemIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    itemLocks.lockUntilCompletion(itemId);
+                    if (summaryRepository.existsById(itemId)) {
+                        summaryRepository.save(rebuild(itemId, LocalDateTime.now()));
+                    }
+                });
+            } catch (DataAccessException e) {
+                log.warn("Booking summary for item with ID = {} was not rolled forward: {}", itemId, e.getMessage());
+            }
+        }
+        if (!staleItemIds.isEmpty()) {
+            log.debug("Rolled forward booking summaries of {} items", staleItemIds.size());
+        }
+    }
+
+    private ItemBookingSummary rebuild(Long itemId, LocalDateTime now) {
+        ItemBookingSummary summary = new ItemBookingSummary(itemId);
+        for (Booking booking : bookingRepository.findLastAndNextBookings(List.of(itemId), now)) {
+            if (booking.getStart().isBefore(now)) {
+                summary.setLast(booking);
+            } else {
+                summary.setNext(booking);
+            }
+        }
+        return summary;
+    }
+}
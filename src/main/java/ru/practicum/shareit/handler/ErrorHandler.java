@@ -24,7 +24,7 @@ public class ErrorHandler {
     }
 
     @ExceptionHandler({NotAvailableException.class, MethodArgumentNotValidException.class, TimeDataException.class,
-            ConstraintViolationException.class})
+            ConstraintViolationException.class, InvalidCursorException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBadRequestException(RuntimeException e) {
         log.warn("400 {}", e.getMessage());
@@ -29,7 +29,7 @@ public class Item {
 
     @Column(name = "owner_id", nullable = false)
     private Long ownerId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
 
@@ -2,15 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.groups.Create;
 import ru.practicum.shareit.groups.Update;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
@@ -53,6 +58,18 @@ public class ItemController {
         return itemService.findAllUsersItems(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto findAvailability(@PathVariable Long itemId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to,
+                                                @RequestParam(defaultValue = "hour") String granularity) {
+        log.info("Received a GET-request to the endpoint: '/items/{itemId}/availability' to get availability of item "
+                + "with ID = {}", itemId);
+        return itemService.findAvailability(itemId, from, to, Granularity.of(granularity));
+    }
+
     @DeleteMapping("/{itemId}")
     public void delete(@PathVariable Long itemId,
                        @RequestHeader(OWNER_ID_HEADER) Long ownerId) {
@@ -68,6 +85,19 @@ public class ItemController {
         return itemService.search(text, from, size);
     }
 
+    @GetMapping(path = "/search", params = {"start", "end"})
+    public Collection<ItemDto> searchFreeBetween(@RequestParam String text,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime start,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime end,
+                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                 @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Received a GET-request to the endpoint: '/items/search' to search item with text = {} free from {} "
+                + "to {}", text, start, end);
+        return itemService.searchFreeBetween(text, start, end, from, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                     @PathVariable Long itemId,
@@ -75,4 +105,13 @@ public class ItemController {
         log.info("Received a POST-request to the endpoint: '/items/{itemId}/comment' to add a comment");
         return itemService.addComment(itemId, userId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto findComments(@PathVariable Long itemId,
+                                       @RequestParam(defaultValue = "") String cursor,
+                                       @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Received a GET-request to the endpoint: '/items/{itemId}/comments' to get a page of comments of item "
+                + "with ID = {}", itemId);
+        return itemService.findComments(itemId, cursor, size);
+    }
 }
\ No newline at end of file
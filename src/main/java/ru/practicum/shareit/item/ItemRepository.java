@@ -3,20 +3,56 @@ package ru.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long userId, Pageable page);
 
     @Query("SELECT i FROM Item i "
-            + "WHERE upper(i.name) like upper(concat('%', ?1, '%')) "
-            + "OR upper(i.description) like upper(concat('%', ?1, '%')) "
-            + "AND i.available = true")
+            + "WHERE i.available = true "
+            + "AND (upper(i.name) like upper(concat('%', ?1, '%')) "
+            + "OR upper(i.description) like upper(concat('%', ?1, '%'))) "
+            + "ORDER BY i.id")
     List<Item> searchAvailableItems(String text, Pageable page);
 
+    @Query(value = "SELECT i.* FROM items i, plainto_tsquery('simple', :text) query "
+            + "WHERE i.is_available = true AND i.search_vector @@ query "
+            + "ORDER BY ts_rank(i.search_vector, query) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchFullText(@Param("text") String text, Pageable page);
+
+    @Query("SELECT i FROM Item i "
+            + "WHERE i.available = true "
+            + "AND (upper(i.name) like upper(concat('%', :text, '%')) "
+            + "OR upper(i.description) like upper(concat('%', :text, '%'))) "
+            + "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item = i "
+            + "AND b.status IN (ru.practicum.shareit.booking.BookingStatus.WAITING, "
+            + "ru.practicum.shareit.booking.BookingStatus.APPROVED) "
+            + "AND b.end > :start AND b.start < :end) "
+            + "ORDER BY i.id")
+    List<Item> searchAvailableItemsFreeBetween(@Param("text") String text, @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end, Pageable page);
+
+    @Query(value = "SELECT i.* FROM items i, plainto_tsquery('simple', :text) query "
+            + "WHERE i.is_available = true AND i.search_vector @@ query "
+            + "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id "
+            + "AND b.status IN ('WAITING', 'APPROVED') AND b.end_date > :start AND b.start_date < :end) "
+            + "ORDER BY ts_rank(i.search_vector, query) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchFullTextFreeBetween(@Param("text") String text, @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end, Pageable page);
+
     List<Item> findAllByItemRequest(ItemRequest itemRequest);
 
     List<Item> findAllByItemRequestIn(List<ItemRequest> itemRequestList);
+
+    @Query("SELECT i FROM Item i "
+            + "LEFT JOIN FETCH i.itemRequest "
+            + "WHERE i.id > :lastId "
+            + "ORDER BY i.id")
+    List<Item> findBatchAfterId(@Param("lastId") Long lastId, Pageable page);
 }
\ No newline at end of file
@@ -3,26 +3,39 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatsService;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.OperationAccessException;
+import ru.practicum.shareit.exception.TimeDataException;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.availability.ItemAvailabilityDto;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentCursor;
+import ru.practicum.shareit.item.comment.CommentEligibilityCache;
 import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryService;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchService;
 import ru.practicum.shareit.request.ItemRequestDto;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserMapper;
-import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 
 import javax.transaction.Transactional;
@@ -31,38 +44,50 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.DESC;
-
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ItemService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final int ITEM_VIEW_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserService userService;
-    private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestService requestService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchService searchService;
+    private final ItemBookingSummaryService bookingSummaries;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final BookingStatsService bookingStats;
+    private final ItemCommentSummaryService commentSummaries;
+    private final CommentEligibilityCache commentEligibility;
+    private final UserExistenceService userExistence;
 
     public ItemDto create(Long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with ID = %d not found.", userId)));
+        userExistence.checkExists(userId);
         Item item = ItemMapper.toItem(itemDto);
         item.setOwnerId(userId);
         if (itemDto.getRequestId() != null) {
             ItemRequestDto itemRequest = requestService.findById(userId, itemDto.getRequestId());
             item.setItemRequest(ItemRequestMapper.toItemRequest(itemRequest));
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchIndex.put(saved);
+        bookingSummaries.onItemCreated(saved.getId());
+        commentSummaries.onItemCreated(saved.getId());
+        return ItemMapper.toItemDto(saved);
     }
 
 
     public ItemDto save(ItemDto itemDto, Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Item with ID = %d not found.", itemId)));
-        userService.findUserById(userId);
+        userExistence.checkExists(userId);
         if (!item.getOwnerId().equals(userId)) {
             throw new OperationAccessException(String.format("User with ID = %d is not an owner, update is not available.", userId));
         }
@@ -75,7 +100,9 @@ public class ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        searchIndex.put(saved);
+        return ItemMapper.toItemDto(saved);
     }
 
     public ItemDto findItemById(Long itemId, Long userId) {
@@ -86,11 +113,26 @@ public class ItemService {
         if (Objects.equals(item.getOwnerId(), userId)) {
             result = updateBookings(result);
         }
-        List<Comment> comments = commentRepository.findAllByItemId(result.getId());
-        result.setComments(CommentMapper.toDtoList(comments));
+        result.setComments(findCommentsBefore(itemId, CommentCursor.decode(null), ITEM_VIEW_COMMENTS));
         return result;
     }
 
+    public CommentPageDto findComments(Long itemId, String cursor, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Item with ID = %d not found.", itemId));
+        }
+        List<CommentDto> comments = findCommentsBefore(itemId, CommentCursor.decode(cursor), size);
+        String nextCursor = comments.size() == size
+                ? CommentCursor.after(comments.get(comments.size() - 1)).encode()
+                : null;
+        return new CommentPageDto(comments, nextCursor);
+    }
+
+    private List<CommentDto> findCommentsBefore(Long itemId, CommentCursor position, int size) {
+        return CommentMapper.toViewDtoList(commentRepository.findByItemIdBeforeCursor(itemId,
+                position.getCreated(), position.getId(), PageRequest.of(0, size)));
+    }
+
     public List<ItemDto> findAllUsersItems(Long userId, Integer from, Integer size) {
         Pageable page = PageRequest.of(from / size, size);
         List<Item> items = itemRepository.findAllByOwnerId(userId, page);
@@ -98,34 +140,26 @@ public class ItemService {
     }
 
     public List<ItemDto> updateBookingsAndComments(List<Item> items) {
-        Map<Item, List<Comment>> comments = commentRepository.findByItemIn(items, Sort.by(DESC, "created"))
-                .stream()
-                .collect(Collectors.groupingBy(Comment::getItem, Collectors.toList()));
-        Map<Item, List<Booking>> bookings = bookingRepository.findByItemIn(items, Sort.by("start"))
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        Map<Long, List<CommentDto>> comments = commentSummaries.findRecent(itemIds);
+        Map<Long, List<Booking>> bookings = bookingRepository.findLastAndNextBookings(itemIds, now)
                 .stream()
-                .collect(Collectors.groupingBy(Booking::getItem, Collectors.toList()));
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
 
-        LocalDateTime now = LocalDateTime.now();
         for (Item item : items) {
-            List<Comment> itemComments = comments.get(item);
-            if (itemComments != null) {
-                item.setComments(CommentMapper.toDtoList(itemComments));
+            List<CommentDto> itemComments = comments.get(item.getId());
+            if (!itemComments.isEmpty()) {
+                item.setComments(itemComments);
             }
-            List<Booking> itemBookings = bookings.get(item);
-            if (itemBookings != null) {
-                Booking lastBooking = itemBookings.stream()
-                        .filter(booking -> booking.getStart().isBefore(now))
-                        .max(Comparator.comparing(Booking::getStart))
-                        .orElse(null);
-                Booking nextBooking = itemBookings.stream()
-                        .filter(booking -> booking.getStart().isAfter(now))
-                        .min(Comparator.comparing(Booking::getStart))
-                        .orElse(null);
-                if (lastBooking != null) {
-                    item.setLastBooking(BookingMapper.toItemBookingDto(lastBooking));
-                }
-                if (nextBooking != null) {
-                    item.setNextBooking(BookingMapper.toItemBookingDto(nextBooking));
+            for (Booking booking : bookings.getOrDefault(item.getId(), Collections.emptyList())) {
+                if (booking.getStart().isBefore(now)) {
+                    item.setLastBooking(BookingMapper.toItemBookingDto(booking));
+                } else {
+                    item.setNextBooking(BookingMapper.toItemBookingDto(booking));
                 }
             }
         }
@@ -133,27 +167,29 @@ public class ItemService {
     }
 
     public ItemDto updateBookings(ItemDto itemDto) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findBookingsItem(itemDto.getId());
-        Booking lastBooking = bookings.stream()
-                .filter(obj -> !(obj.getStatus().equals(BookingStatus.REJECTED)))
-                .filter(obj -> obj.getStart().isBefore(now))
-                .min((obj1, obj2) -> obj2.getStart().compareTo(obj1.getStart())).orElse(null);
-        Booking nextBooking = bookings.stream()
-                .filter(obj -> !(obj.getStatus().equals(BookingStatus.REJECTED)))
-                .filter(obj -> obj.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart)).orElse(null);
-        if (lastBooking != null) {
-            itemDto.setLastBooking(BookingMapper.toItemBookingDto(lastBooking));
-        }
-        if (nextBooking != null) {
-            itemDto.setNextBooking(BookingMapper.toItemBookingDto(nextBooking));
-        }
+        ItemBookingSummary summary = bookingSummaries.find(itemDto.getId());
+        itemDto.setLastBooking(BookingMapper.toLastBookingDto(summary));
+        itemDto.setNextBooking(BookingMapper.toNextBookingDto(summary));
         return itemDto;
     }
 
     public void deleteById(Long itemId) {
+        itemRepository.findById(itemId).ifPresent(item -> bookingStats.invalidate(item.getOwnerId()));
         itemRepository.deleteById(itemId);
+        searchIndex.remove(itemId);
+        availabilityIndex.invalidate(itemId);
+    }
+
+    public ItemAvailabilityDto findAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                Granularity granularity) {
+        if (!to.isAfter(from) || to.isAfter(from.plusDays(MAX_AVAILABILITY_DAYS))) {
+            throw new TimeDataException(String.format("Invalid availability window from = %s to = %s, "
+                    + "it must be non-empty and at most %d days long", from, to, MAX_AVAILABILITY_DAYS));
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Item with ID = %d not found.", itemId));
+        }
+        return new ItemAvailabilityDto(itemId, granularity, availabilityIndex.calendar(itemId, from, to, granularity));
     }
 
     public List<ItemDto> search(String text, Integer from, Integer size) {
@@ -161,9 +197,19 @@ public class ItemService {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.searchAvailableItems(text, page).stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return searchService.search(text, page);
+    }
+
+    public List<ItemDto> searchFreeBetween(String text, LocalDateTime start, LocalDateTime end, Integer from,
+                                           Integer size) {
+        if (!end.isAfter(start)) {
+            throw new TimeDataException(String.format("Invalid search window start = %s end = %s", start, end));
+        }
+        Pageable page = PageRequest.of(from / size, size);
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return searchService.searchFreeBetween(text, start, end, page);
     }
 
 
@@ -177,17 +223,30 @@ public class ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Item with ID = %d not found.", itemId)));
         User user = UserMapper.toUser(userService.findUserById(userId));
-        List<Booking> bookings = bookingRepository
-                .findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(itemId, userId, BookingStatus.APPROVED, LocalDateTime.now());
-        if (!bookings.isEmpty() && bookings.get(0).getStart().isBefore(LocalDateTime.now())) {
+        if (canComment(itemId, userId)) {
             Comment comment = CommentMapper.toComment(commentDto);
             comment.setItem(item);
             comment.setAuthor(user);
             comment.setCreated(LocalDateTime.now());
-            return CommentMapper.toDto(commentRepository.save(comment));
+            Comment saved = commentRepository.save(comment);
+            commentSummaries.onCommentAdded(saved);
+            return CommentMapper.toDto(saved);
         } else {
             throw new NotAvailableException(String.format("Booking for user with ID = %d and item with ID = %d not found.", userId, itemId));
         }
     }
 
+    public boolean canComment(Long itemId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (commentEligibility.isEligible(userId, itemId, now)) {
+            return true;
+        }
+        if (bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, BookingStatus.APPROVED, now)
+                || archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(itemId, userId, BookingStatus.APPROVED)) {
+            commentEligibility.markEligible(userId, itemId);
+            return true;
+        }
+        return false;
+    }
+
 }
\ No newline at end of file
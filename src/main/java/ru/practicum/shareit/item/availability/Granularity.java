@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.exception.NotAvailableException;
+
+import java.util.Locale;
+
+public enum Granularity {
+    HOUR(1),
+    DAY(24);
+
+    private final int hours;
+
+    Granularity(int hours) {
+        this.hours = hours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    public static Granularity of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new NotAvailableException(String.format("Unknown granularity: %s", value));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private Granularity granularity;
+    private List<AvailabilitySlotDto> slots;
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-item bitmaps of hours covered by WAITING or APPROVED bookings. A bitmap is loaded on the first calendar
+ * request for its item, grows with committed bookings and is dropped when a booking is rejected, so the next
+ * request reloads it. Slots before the current hour are reported as busy because they can no longer be booked.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, SlotBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    public void add(Long itemId, LocalDateTime start, LocalDateTime end) {
+        TransactionCallbacks.afterCommit(() -> bitmaps.computeIfPresent(itemId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                bitmap.set(floorHour(start), ceilHour(end));
+            }
+            return bitmap;
+        }));
+    }
+
+    public void invalidate(Long itemId) {
+        TransactionCallbacks.afterCommit(() -> bitmaps.remove(itemId));
+    }
+
+    public List<AvailabilitySlotDto> calendar(Long itemId, LocalDateTime from, LocalDateTime to,
+                                              Granularity granularity) {
+        SlotBitmap bitmap = bitmaps.computeIfAbsent(itemId, this::load);
+        int hours = granularity.getHours();
+        long unit = Math.floorDiv(floorHour(from), hours);
+        long endUnit = -Math.floorDiv(-ceilHour(to), hours);
+        long currentUnit = Math.floorDiv(floorHour(LocalDateTime.now()), hours);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        if (unit < currentUnit) {
+            long end = Math.min(endUnit, currentUnit);
+            append(slots, unit, end, hours, false);
+            unit = end;
+        }
+        synchronized (bitmap) {
+            while (unit < endUnit) {
+                boolean free = isFree(bitmap, unit, hours);
+                long end = free
+                        ? Math.min(endUnit, nextBusyUnit(bitmap, unit, hours))
+                        : nextFreeUnit(bitmap, unit, endUnit, hours);
+                append(slots, unit, end, hours, free);
+                unit = end;
+            }
+        }
+        return slots;
+    }
+
+    private SlotBitmap load(Long itemId) {
+        SlotBitmap bitmap = new SlotBitmap();
+        bookingRepository.findByItemIdAndStatusInAndEndIsAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> bitmap.set(floorHour(booking.getStart()), ceilHour(booking.getEnd())));
+        return bitmap;
+    }
+
+    private static boolean isFree(SlotBitmap bitmap, long unit, int hours) {
+        return bitmap.nextSetBit(unit * hours) >= (unit + 1) * hours;
+    }
+
+    private static long nextBusyUnit(SlotBitmap bitmap, long unit, int hours) {
+        long next = bitmap.nextSetBit(unit * hours);
+        return next == Long.MAX_VALUE ? Long.MAX_VALUE : next / hours;
+    }
+
+    private static long nextFreeUnit(SlotBitmap bitmap, long unit, long limit, int hours) {
+        long candidate = unit;
+        while (candidate < limit) {
+            candidate = bitmap.nextClearBit(candidate * hours) / hours;
+            if (candidate >= limit || isFree(bitmap, candidate, hours)) {
+                break;
+            }
+            candidate++;
+        }
+        return Math.min(candidate, limit);
+    }
+
+    private static void append(List<AvailabilitySlotDto> slots, long fromUnit, long toUnit, int hours, boolean free) {
+        LocalDateTime end = toTime(toUnit * hours);
+        if (!slots.isEmpty()) {
+            AvailabilitySlotDto last = slots.get(slots.size() - 1);
+            if (last.isFree() == free) {
+                last.setEnd(end);
+                return;
+            }
+        }
+        slots.add(new AvailabilitySlotDto(toTime(fromUnit * hours), end, free));
+    }
+
+    private static long floorHour(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static long ceilHour(LocalDateTime time) {
+        return -Math.floorDiv(-time.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static LocalDateTime toTime(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+}
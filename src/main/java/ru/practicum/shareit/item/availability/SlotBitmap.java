@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.availability;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sparse bitset over hour slots. Bits live in fixed blocks of {@code long} words that are allocated only for
+ * periods that contain bookings, so a year of hourly slots takes at most 140 words.
+ */
+final class SlotBitmap {
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOCK_BITS = 1 << BLOCK_SHIFT;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+
+    private final NavigableMap<Long, long[]> blocks = new TreeMap<>();
+
+    /**
+     * Marks the slots {@code [from, to)}.
+     */
+    void set(long from, long to) {
+        long slot = from;
+        while (slot < to) {
+            long blockIndex = slot >> BLOCK_SHIFT;
+            long base = blockIndex << BLOCK_SHIFT;
+            long blockEnd = Math.min(to, base + BLOCK_BITS);
+            setRange(blocks.computeIfAbsent(blockIndex, key -> new long[WORDS_PER_BLOCK]),
+                    (int) (slot - base), (int) (blockEnd - base));
+            slot = blockEnd;
+        }
+    }
+
+    /**
+     * Returns the first marked slot at or after {@code from}, or {@link Long#MAX_VALUE} if there is none.
+     */
+    long nextSetBit(long from) {
+        long blockIndex = from >> BLOCK_SHIFT;
+        long[] words = blocks.get(blockIndex);
+        int bit = words == null ? -1 : nextSetBit(words, (int) (from - (blockIndex << BLOCK_SHIFT)));
+        while (bit < 0) {
+            Map.Entry<Long, long[]> next = blocks.higherEntry(blockIndex);
+            if (next == null) {
+                return Long.MAX_VALUE;
+            }
+            blockIndex = next.getKey();
+            bit = nextSetBit(next.getValue(), 0);
+        }
+        return (blockIndex << BLOCK_SHIFT) + bit;
+    }
+
+    /**
+     * Returns the first unmarked slot at or after {@code from}.
+     */
+    long nextClearBit(long from) {
+        long slot = from;
+        while (true) {
+            long blockIndex = slot >> BLOCK_SHIFT;
+            long[] words = blocks.get(blockIndex);
+            if (words == null) {
+                return slot;
+            }
+            long base = blockIndex << BLOCK_SHIFT;
+            int bit = nextClearBit(words, (int) (slot - base));
+            if (bit < BLOCK_BITS) {
+                return base + bit;
+            }
+            slot = base + BLOCK_BITS;
+        }
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        int startWord = from >>> 6;
+        int endWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (startWord == endWord) {
+            words[startWord] |= firstMask & lastMask;
+            return;
+        }
+        words[startWord] |= firstMask;
+        for (int i = startWord + 1; i < endWord; i++) {
+            words[i] = -1L;
+        }
+        words[endWord] |= lastMask;
+    }
+
+    private static int nextSetBit(long[] words, int from) {
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    private static int nextClearBit(long[] words, int from) {
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return BLOCK_BITS;
+            }
+            word = ~words[index];
+        }
+    }
+}
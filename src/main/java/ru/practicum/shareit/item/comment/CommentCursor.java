@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in an item's comments ordered by creation time and id, both descending. Clients receive it as an
+ * opaque token and pass it back to continue from the last comment they have seen.
+ */
+@Value
+public class CommentCursor {
+    static final CommentCursor FIRST = new CommentCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime created;
+    Long id;
+
+    public static CommentCursor after(CommentDto comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public static CommentCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new CommentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    public String encode() {
+        String raw = created.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
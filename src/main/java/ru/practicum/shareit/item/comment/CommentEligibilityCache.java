@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers from when a user may comment on an item: the end of their earliest approved booking of it. An approved
+ * booking never changes status again and leaves only together with its item or booker, whose ids are not reused,
+ * so an entry never has to be taken back. Users without an entry are checked against the database.
+ */
+@Component
+public class CommentEligibilityCache {
+    private final Map<Key, LocalDateTime> eligibleFrom;
+
+    public CommentEligibilityCache(@Value("${shareit.comment-eligibility.max-entries:100000}") int maxEntries) {
+        this.eligibleFrom = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, LocalDateTime> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public void onApproved(Long bookerId, Long itemId, LocalDateTime end) {
+        TransactionCallbacks.afterCommit(() -> put(bookerId, itemId, end));
+    }
+
+    public void markEligible(Long userId, Long itemId) {
+        put(userId, itemId, LocalDateTime.MIN);
+    }
+
+    public boolean isEligible(Long userId, Long itemId, LocalDateTime now) {
+        LocalDateTime from = eligibleFrom.get(new Key(userId, itemId));
+        return from != null && from.isBefore(now);
+    }
+
+    private void put(Long userId, Long itemId, LocalDateTime from) {
+        eligibleFrom.merge(new Key(userId, itemId), from, (a, b) -> a.isBefore(b) ? a : b);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final Long userId;
+        private final Long itemId;
+    }
+}
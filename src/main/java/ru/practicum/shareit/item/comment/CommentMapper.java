@@ -20,6 +20,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto toDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static Comment toComment(CommentDto commentDto) {
         return Comment.builder()
                 .id(commentDto.getId())
@@ -33,4 +42,10 @@ public class CommentMapper {
                 .map(CommentMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    public static List<CommentDto> toViewDtoList(List<CommentView> comments) {
+        return comments.stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList());
+    }
 }
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.item.comment;
 
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.item.Item;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    long countByItemId(Long itemId);
 
-    List<Comment> findByItemIn(List<Item> items, Sort sort);
-}
\ No newline at end of file
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("SELECT c.id AS id, c.text AS text, a.name AS authorName, c.created AS created "
+            + "FROM Comment c JOIN c.author a "
+            + "WHERE c.item.id = :itemId AND (c.created, c.id) < (:cursorCreated, :cursorId) "
+            + "ORDER BY c.created DESC, c.id DESC")
+    List<CommentView> findByItemIdBeforeCursor(@Param("itemId") Long itemId,
+                                               @Param("cursorCreated") LocalDateTime cursorCreated,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable page);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment row joined with its author's name, read without loading the comment, item or author entities.
+ */
+public interface CommentView {
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read model holding the comment count of an item and its newest comments, so item lists do not have to read
+ * the comments table. The newest comments are kept in a ring of {@link #RECENT_SIZE} slots: comment number
+ * {@code n} goes to slot {@code n % RECENT_SIZE} and overwrites the oldest one.
+ */
+@Entity
+@Table(name = "item_comment_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemCommentSummary {
+    public static final int RECENT_SIZE = 10;
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "last_created")
+    private LocalDateTime lastCreated;
+
+    @ElementCollection
+    @CollectionTable(name = "item_comment_summary_recent", joinColumns = @JoinColumn(name = "item_id"))
+    @MapKeyColumn(name = "slot")
+    private Map<Integer, RecentComment> recent = new HashMap<>();
+
+    public ItemCommentSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public void add(RecentComment comment) {
+        recent.put((int) (commentCount % RECENT_SIZE), comment);
+        commentCount++;
+        if (lastCreated == null || comment.getCreated().isAfter(lastCreated)) {
+            lastCreated = comment.getCreated();
+        }
+    }
+
+    public List<CommentDto> recentComments() {
+        return recent.values().stream()
+                .sorted(Comparator.comparing(RecentComment::getCreated)
+                        .thenComparing(RecentComment::getCommentId)
+                        .reversed())
+                .map(RecentComment::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ring rows are deleted together with their comment when its author is deleted, after which the summary
+     * no longer reflects the comments table until it is rebuilt.
+     */
+    public boolean isStale() {
+        return recent.size() < Math.min(commentCount, RECENT_SIZE);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.comment;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemCommentSummaryRepository extends JpaRepository<ItemCommentSummary, Long> {
+
+    @Query("SELECT DISTINCT s FROM ItemCommentSummary s LEFT JOIN FETCH s.recent WHERE s.itemId IN :itemIds")
+    List<ItemCommentSummary> findAllWithRecent(@Param("itemIds") Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemCommentSummary s WHERE s.itemId = :itemId")
+    Optional<ItemCommentSummary> findForUpdate(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query(value = "UPDATE item_comment_summary_recent SET author_name = :authorName "
+            + "WHERE comment_id IN (SELECT id FROM comments WHERE author_id = :authorId)",
+            nativeQuery = true)
+    int renameAuthor(@Param("authorId") Long authorId, @Param("authorName") String authorName);
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemCommentSummary} rows in the transaction that adds the comment.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemCommentSummaryService {
+    private final ItemCommentSummaryRepository summaryRepository;
+    private final CommentRepository commentRepository;
+
+    public void onItemCreated(Long itemId) {
+        summaryRepository.save(new ItemCommentSummary(itemId));
+    }
+
+    /**
+     * Locks the summary row, so concurrent comments on one item take consecutive ring slots. Items without a
+     * summary row (created before the read model existed) get one built from the comments table, which already
+     * holds the new comment.
+     */
+    public void onCommentAdded(Comment comment) {
+        Long itemId = comment.getItem().getId();
+        Optional<ItemCommentSummary> locked = summaryRepository.findForUpdate(itemId);
+        if (locked.isPresent() && !locked.get().isStale()) {
+            locked.get().add(new RecentComment(comment.getId(), comment.getText(), comment.getAuthor().getName(),
+                    comment.getCreated()));
+        } else {
+            summaryRepository.save(rebuild(locked.orElseGet(() -> new ItemCommentSummary(itemId))));
+        }
+    }
+
+    /**
+     * Ring rows carry a copy of the author name, so a rename rewrites them in the renaming transaction.
+     */
+    public void onAuthorRenamed(Long authorId, String authorName) {
+        summaryRepository.renameAuthor(authorId, authorName);
+    }
+
+    /**
+     * Items the author commented on. Read before the author is deleted, since the delete cascades to the comments.
+     */
+    public List<Long> findCommentedItemIds(Long authorId) {
+        return commentRepository.findItemIdsByAuthorId(authorId);
+    }
+
+    /**
+     * Deleting an author cascades to their comments and to the ring rows copying them, so the summaries of the
+     * items they commented on are rebuilt from the comments table once the delete is flushed.
+     */
+    public void onAuthorDeleted(Collection<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            summaryRepository.findForUpdate(itemId).ifPresent(summary -> summaryRepository.save(rebuild(summary)));
+        }
+    }
+
+    /**
+     * Newest comments per item, newest first. Items with a missing or stale summary are answered from the
+     * comments table; such rows are repaired by the next comment on the item.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentDto>> findRecent(Collection<Long> itemIds) {
+        Map<Long, ItemCommentSummary> summaries = summaryRepository.findAllWithRecent(itemIds).stream()
+                .collect(Collectors.toMap(ItemCommentSummary::getItemId, Function.identity()));
+        Map<Long, List<CommentDto>> recent = new HashMap<>();
+        for (Long itemId : itemIds) {
+            ItemCommentSummary summary = summaries.get(itemId);
+            if (summary == null || summary.isStale()) {
+                summary = rebuild(new ItemCommentSummary(itemId));
+            }
+            recent.put(itemId, summary.recentComments());
+        }
+        return recent;
+    }
+
+    private ItemCommentSummary rebuild(ItemCommentSummary summary) {
+        List<CommentView> newest = commentRepository.findByItemIdBeforeCursor(summary.getItemId(),
+                CommentCursor.FIRST.getCreated(), CommentCursor.FIRST.getId(),
+                PageRequest.of(0, ItemCommentSummary.RECENT_SIZE));
+        // A new map makes Hibernate drop the ring with one delete by item; clearing the old one would update
+        // slot by slot and fail on rows the cascade already removed.
+        summary.setRecent(new HashMap<>());
+        summary.setLastCreated(null);
+        summary.setCommentCount(commentRepository.countByItemId(summary.getItemId()) - newest.size());
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            CommentView comment = newest.get(i);
+            summary.add(new RecentComment(comment.getId(), comment.getText(), comment.getAuthorName(),
+                    comment.getCreated()));
+        }
+        return summary;
+    }
+}
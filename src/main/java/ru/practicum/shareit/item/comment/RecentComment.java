@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecentComment {
+    @Column(name = "comment_id", nullable = false)
+    private Long commentId;
+
+    @Column(name = "text", nullable = false)
+    private String text;
+
+    @Column(name = "author_name", nullable = false)
+    private String authorName;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    public CommentDto toDto() {
+        return CommentDto.builder()
+                .id(commentId)
+                .text(text)
+                .authorName(authorName)
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram inverted index over item names and descriptions. Serves case-insensitive substring search
+ * for available items without scanning the items table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int CHECK_CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<Long, IndexedItem> items = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0L;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findBatchAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Item item : batch) {
+                apply(new IndexedItem(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        log.info("Item search index loaded with {} items", items.size());
+    }
+
+    public void put(Item item) {
+        IndexedItem entry = new IndexedItem(item);
+        TransactionCallbacks.afterCommit(() -> apply(entry));
+    }
+
+    public void remove(Long itemId) {
+        TransactionCallbacks.afterCommit(() -> discard(itemId));
+    }
+
+    public void removeByOwner(Long ownerId) {
+        TransactionCallbacks.afterCommit(() -> items.values().stream()
+                .filter(entry -> entry.ownerId.equals(ownerId))
+                .map(entry -> entry.id)
+                .collect(Collectors.toList())
+                .forEach(this::discard));
+    }
+
+    public List<ItemDto> search(String text, Pageable page) {
+        return search(text, page, itemIds -> Collections.emptySet());
+    }
+
+    /**
+     * Hands text matches to {@code rejected} in chunks of at most {@value #CHECK_CHUNK_SIZE} ids, sized to what the page
+     * still needs, and drops the ids it returns. Paging counts the remaining items only.
+     */
+    public List<ItemDto> search(String text, Pageable page, Function<List<Long>, Set<Long>> rejected) {
+        String query = normalize(text);
+        Iterator<Long> candidates = candidates(query);
+        long skip = page.getOffset();
+        List<ItemDto> result = new ArrayList<>();
+        List<IndexedItem> chunk = new ArrayList<>();
+        while (candidates.hasNext() && result.size() < page.getPageSize()) {
+            long wanted = Math.min(CHECK_CHUNK_SIZE, skip + page.getPageSize() - result.size());
+            while (candidates.hasNext() && chunk.size() < wanted) {
+                IndexedItem entry = items.get(candidates.next());
+                if (entry != null && entry.matches(query)) {
+                    chunk.add(entry);
+                }
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Set<Long> excluded = rejected.apply(chunk.stream().map(entry -> entry.id).collect(Collectors.toList()));
+            for (IndexedItem entry : chunk) {
+                if (result.size() == page.getPageSize()) {
+                    break;
+                }
+                if (excluded.contains(entry.id)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(entry.toItemDto());
+                }
+            }
+            chunk.clear();
+        }
+        return result;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private Iterator<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return items.keySet().iterator();
+        }
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyIterator();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> smallest = lists.get(0);
+        List<NavigableSet<Long>> rest = lists.subList(1, lists.size());
+        return smallest.stream()
+                .filter(id -> rest.stream().allMatch(ids -> ids.contains(id)))
+                .iterator();
+    }
+
+    private synchronized void apply(IndexedItem entry) {
+        IndexedItem previous = items.put(entry.id, entry);
+        Set<String> grams = entry.grams();
+        if (previous != null) {
+            Set<String> stale = previous.grams();
+            stale.removeAll(grams);
+            unlink(entry.id, stale);
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new ConcurrentSkipListSet<>()).add(entry.id);
+        }
+    }
+
+    private synchronized void discard(Long itemId) {
+        IndexedItem previous = items.remove(itemId);
+        if (previous != null) {
+            unlink(itemId, previous.grams());
+        }
+    }
+
+    private void unlink(Long itemId, Set<String> grams) {
+        for (String gram : grams) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class IndexedItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long ownerId;
+        private final Long requestId;
+        private final String normalizedName;
+        private final String normalizedDescription;
+
+        private IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.available = item.getAvailable();
+            this.ownerId = item.getOwnerId();
+            this.requestId = item.getItemRequest() != null ? item.getItemRequest().getId() : null;
+            this.normalizedName = normalize(name);
+            this.normalizedDescription = normalize(description);
+        }
+
+        private boolean matches(String query) {
+            return Boolean.TRUE.equals(available)
+                    && (normalizedName.contains(query) || normalizedDescription.contains(query));
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(normalizedName);
+            grams.addAll(ItemSearchIndex.grams(normalizedDescription));
+            return grams;
+        }
+
+        private ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
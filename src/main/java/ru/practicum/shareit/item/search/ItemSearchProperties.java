@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+@Getter
+@Setter
+public class ItemSearchProperties {
+    private SearchMode mode = SearchMode.INDEX;
+
+    public enum SearchMode {
+        INDEX,
+        JPQL,
+        FULL_TEXT
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSearchService {
+    private static final String SEARCH_VECTOR_COLUMN = "search_vector";
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final ItemSearchProperties properties;
+    private final ItemSearchIndex searchIndex;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final DataSource dataSource;
+    private volatile Boolean fullTextSupported;
+
+    public List<ItemDto> search(String text, Pageable page) {
+        switch (properties.getMode()) {
+            case JPQL:
+                return toItemDto(itemRepository.searchAvailableItems(text, page));
+            case FULL_TEXT:
+                return toItemDto(isFullTextSupported()
+                        ? itemRepository.searchFullText(text, page)
+                        : itemRepository.searchAvailableItems(text, page));
+            default:
+                return searchIndex.search(text, page);
+        }
+    }
+
+    /**
+     * Searches only items without a WAITING or APPROVED booking overlapping {@code [start, end)}. The in-memory
+     * index checks the matches it visits against the bookings table chunk by chunk while it pages; the SQL modes
+     * add a NOT EXISTS condition.
+     */
+    public List<ItemDto> searchFreeBetween(String text, LocalDateTime start, LocalDateTime end, Pageable page) {
+        switch (properties.getMode()) {
+            case JPQL:
+                return toItemDto(itemRepository.searchAvailableItemsFreeBetween(text, start, end, page));
+            case FULL_TEXT:
+                return toItemDto(isFullTextSupported()
+                        ? itemRepository.searchFullTextFreeBetween(text, start, end, page)
+                        : itemRepository.searchAvailableItemsFreeBetween(text, start, end, page));
+            default:
+                return searchIndex.search(text, page,
+                        itemIds -> bookingRepository.findBookedItemIds(itemIds, ACTIVE_STATUSES, start, end));
+        }
+    }
+
+    private boolean isFullTextSupported() {
+        if (fullTextSupported == null) {
+            fullTextSupported = detectFullText();
+        }
+        return fullTextSupported;
+    }
+
+    private boolean detectFullText() {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> {
+                if (DatabaseDriver.fromProductName(metaData.getDatabaseProductName()) != DatabaseDriver.POSTGRESQL) {
+                    log.info("Full-text search is not available for {}, falling back to JPQL search.",
+                            metaData.getDatabaseProductName());
+                    return false;
+                }
+                try (ResultSet columns = metaData.getColumns(null, null, "items", SEARCH_VECTOR_COLUMN)) {
+                    if (!columns.next()) {
+                        log.warn("Column items.{} not found, falling back to JPQL search. "
+                                + "Run schema-postgresql.sql to enable full-text search.", SEARCH_VECTOR_COLUMN);
+                        return false;
+                    }
+                    return true;
+                }
+            });
+        } catch (MetaDataAccessException e) {
+            log.warn("Unable to detect full-text search support, falling back to JPQL search.", e);
+            return false;
+        }
+    }
+
+    private static List<ItemDto> toItemDto(List<Item> items) {
+        return items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+}
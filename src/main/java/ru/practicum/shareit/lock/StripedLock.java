@@ -0,0 +1,67 @@
+package ru.practicum.shareit.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks addressed by the hash of an entity id. A lock taken here is held until the current
+ * transaction completes, so the next holder always reads the previous holder's committed writes.
+ */
+@Component
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(@Value("${shareit.lock.stripes:1024}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(long key) {
+        lockUntilCompletion(stripeFor(key));
+    }
+
+    /**
+     * Takes the stripes of all keys in stripe order, so two callers locking overlapping key sets cannot deadlock.
+     */
+    public void lockAllUntilCompletion(Collection<Long> keys) {
+        keys.stream()
+                .mapToInt(this::indexFor)
+                .distinct()
+                .sorted()
+                .forEach(index -> lockUntilCompletion(stripes[index]));
+    }
+
+    private void lockUntilCompletion(ReentrantLock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Striped locks can only be taken inside a transaction.");
+        }
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripeFor(long key) {
+        return stripes[indexFor(key)];
+    }
+
+    private int indexFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (stripes.length - 1);
+    }
+}
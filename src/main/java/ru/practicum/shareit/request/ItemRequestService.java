@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.page.CustomPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -28,6 +29,7 @@ public class ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceService userExistence;
 
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
         User user = checkUser(userId);
@@ -56,7 +58,7 @@ public class ItemRequestService {
 
     @Transactional(readOnly = true)
     public List<ItemRequestDto> findRequests(Long userId, int from, int size) {
-        checkUser(userId);
+        checkUserExists(userId);
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         Pageable page = new CustomPageRequest(from, size, sort);
         List<ItemRequest> allItemRequest = requestRepository.findByRequesterIdIsNot(userId, page);
@@ -72,7 +74,7 @@ public class ItemRequestService {
 
     @Transactional(readOnly = true)
     public List<ItemRequestDto> findUserRequests(Long userId) {
-        checkUser(userId);
+        checkUserExists(userId);
         List<ItemRequest> allItemRequest = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
         Map<ItemRequest, List<Item>> items = itemRepository.findAllByItemRequestIn(allItemRequest)
                 .stream()
@@ -84,6 +86,12 @@ public class ItemRequestService {
         return allItemRequest.stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
     }
 
+    private void checkUserExists(Long userId) {
+        if (!userExistence.exists(userId)) {
+            throw new NotFoundException("пользователя c id " + userId + " нет");
+        }
+    }
+
     private User checkUser(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("пользователя c id " + userId + " нет"));
@@ -6,6 +6,7 @@ import javax.persistence.*;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserExistenceListener.class)
 @Getter
 @Setter
 @Builder
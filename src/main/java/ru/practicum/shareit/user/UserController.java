@@ -1,20 +1,29 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.groups.Create;
 import ru.practicum.shareit.groups.Update;
 
+import javax.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
+@Validated
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto create(@Validated({Create.class}) @RequestBody UserDto userDto) {
@@ -40,6 +49,36 @@ public class UserController {
         return userService.findAllUsers();
     }
 
+    @GetMapping(params = "cursor")
+    public UserPageDto findPage(@RequestParam(defaultValue = "") String cursor,
+                                @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Received a GET-request to the endpoint: '/users' to get a page of users");
+        return userService.findUserPage(cursor, size);
+    }
+
+    /**
+     * Writes every user as a JSON line from an async thread. The body is cut off once
+     * {@code spring.mvc.async.request-timeout} elapses, so the property has to cover a full export.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Received a GET-request to the endpoint: '/users/stream' to stream all users");
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(out -> {
+            try {
+                userService.streamAll(user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(user));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
     @DeleteMapping("/{userId}")
     public void delete(@PathVariable long userId) {
         log.info("Received a DELETE-request to the endpoint: '/users' to delete user with ID = {}", userId);
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+import ru.practicum.shareit.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the user list ordered by id. Clients receive it as an opaque token and pass it back to continue
+ * after the last user they have seen.
+ */
+@Value
+public class UserCursor {
+    static final UserCursor FIRST = new UserCursor(0L);
+
+    Long id;
+
+    public static UserCursor after(UserDto user) {
+        return new UserCursor(user.getId());
+    }
+
+    public static UserCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            return new UserCursor(Long.parseLong(new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+
+/**
+ * Registers every persisted user with {@link UserExistenceService}. Hibernate creates this listener through Spring,
+ * and in slices without the service (such as repository tests) it does nothing.
+ */
+public class UserExistenceListener {
+    @Autowired
+    private ObjectProvider<UserExistenceService> existence;
+
+    @PostPersist
+    public void onPersist(User user) {
+        if (existence != null) {
+            existence.ifAvailable(service -> service.onCreated(user.getId()));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers whether a user exists without a database round trip on the hot path. Known users are kept in a bounded
+ * positive cache, dropped when {@link UserService#delete} commits; lookups cache an id under the same lock as that
+ * eviction, so a lookup racing a delete cannot cache the deleted id. Ids absent from the Bloom filter are rejected
+ * once it has been loaded; the filter learns every user persisted through JPA from {@link UserExistenceListener},
+ * so rows inserted by other means are only seen after a restart. Everything else is checked against the database.
+ */
+@Slf4j
+@Service
+public class UserExistenceService {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final UserIdBloomFilter bloomFilter;
+    private final Map<Long, Boolean> known;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean loaded;
+
+    public UserExistenceService(UserRepository userRepository,
+                                @Value("${shareit.user-existence.max-cached:100000}") int maxCached,
+                                @Value("${shareit.user-existence.expected-users:1000000}") int expectedUsers) {
+        this.userRepository = userRepository;
+        this.bloomFilter = new UserIdBloomFilter(expectedUsers, 0.01);
+        this.known = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxCached;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0L;
+        long count = 0;
+        List<User> batch;
+        do {
+            batch = userRepository.findBatchAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (User user : batch) {
+                bloomFilter.add(user.getId());
+                lastId = user.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("User existence filter loaded with {} users", count);
+    }
+
+    public boolean exists(Long userId) {
+        if (known.containsKey(userId)) {
+            return true;
+        }
+        if (loaded && !bloomFilter.mightContain(userId)) {
+            return false;
+        }
+        long loadedGeneration = generation.get();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            synchronized (known) {
+                if (generation.get() == loadedGeneration) {
+                    known.put(userId, Boolean.TRUE);
+                }
+            }
+        }
+        return exists;
+    }
+
+    public void checkExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException(String.format("User with ID = %d not found.", userId));
+        }
+    }
+
+    /**
+     * Called before commit: a filter bit set for a transaction that rolls back only costs a database check later.
+     */
+    public void onCreated(Long userId) {
+        bloomFilter.add(userId);
+    }
+
+    public void onDeleted(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (known) {
+                generation.incrementAndGet();
+                known.remove(userId);
+            }
+        });
+    }
+}
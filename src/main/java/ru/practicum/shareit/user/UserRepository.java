@@ -1,6 +1,14 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserStreamRepository {
+
+    @Query("SELECT u FROM User u WHERE u.id > :lastId ORDER BY u.id")
+    List<User> findBatchAfterId(@Param("lastId") Long lastId, Pageable page);
+}
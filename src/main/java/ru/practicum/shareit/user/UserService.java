@@ -1,11 +1,16 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatsService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryService;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 
-import javax.transaction.Transactional;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -13,6 +18,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
     private final UserRepository userRepository;
+    private final ItemSearchIndex searchIndex;
+    private final BookingStatsService bookingStats;
+    private final UserExistenceService userExistence;
+    private final ItemCommentSummaryService commentSummaries;
 
     public UserDto create(UserDto userDto) {
         return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
@@ -20,13 +29,18 @@ public class UserService {
 
     public UserDto save(UserDto userDto, Long userId) {
         User user = UserMapper.toUser(findUserById(userId));
+        boolean renamed = userDto.getName() != null && !userDto.getName().equals(user.getName());
         if (userDto.getName() != null) {
             user.setName(userDto.getName());
         }
         if (userDto.getEmail() != null) {
             user.setEmail(userDto.getEmail());
         }
-        return UserMapper.toUserDto(userRepository.save(user));
+        UserDto saved = UserMapper.toUserDto(userRepository.save(user));
+        if (renamed) {
+            commentSummaries.onAuthorRenamed(userId, saved.getName());
+        }
+        return saved;
     }
 
     public UserDto findUserById(Long userId) {
@@ -40,7 +54,27 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    public UserPageDto findUserPage(String cursor, int size) {
+        List<UserDto> users = userRepository.findBatchAfterId(UserCursor.decode(cursor).getId(),
+                        PageRequest.of(0, size)).stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+        String nextCursor = users.size() == size ? UserCursor.after(users.get(users.size() - 1)).encode() : null;
+        return new UserPageDto(users, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> action) {
+        userRepository.forEachUser(action);
+    }
+
     public void delete(Long userId) {
+        List<Long> commentedItemIds = commentSummaries.findCommentedItemIds(userId);
         userRepository.deleteById(userId);
+        userRepository.flush();
+        commentSummaries.onAuthorDeleted(commentedItemIds);
+        searchIndex.removeByOwner(userId);
+        bookingStats.invalidateAll();
+        userExistence.onDeleted(userId);
     }
 }
\ No newline at end of file
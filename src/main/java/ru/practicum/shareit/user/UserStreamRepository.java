@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user;
+
+import java.util.function.Consumer;
+
+/**
+ * Reads that go through plain JDBC instead of the persistence context.
+ */
+public interface UserStreamRepository {
+
+    /**
+     * Passes every user, ordered by id, to {@code action} while iterating a forward-only cursor that fetches a
+     * bounded number of rows at a time. Must run inside a transaction, which PostgreSQL needs to honour the fetch
+     * size instead of reading the whole result.
+     */
+    void forEachUser(Consumer<UserDto> action);
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class UserStreamRepositoryImpl implements UserStreamRepository {
+    private static final String SELECT_ALL = "SELECT id, name, email FROM users ORDER BY id";
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachUser(Consumer<UserDto> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> action.accept(new UserDto(rs.getLong("id"), rs.getString("name"),
+                rs.getString("email"))));
+    }
+}
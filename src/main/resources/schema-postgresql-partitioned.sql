@@ -0,0 +1,60 @@
+-- Turns bookings into a table partitioned by range of start_date. Runs once: existing rows become the
+-- bookings_legacy partition covering everything up to the month after the latest start, later months get
+-- monthly partitions from BookingPartitionMaintenance, and bookings_default catches the rest.
+-- A partitioned table cannot be the target of a foreign key on id alone, so the item_booking_summary
+-- references to bookings are dropped.
+DO '
+DECLARE
+    boundary TIMESTAMP;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = ''bookings''::regclass) <> ''r'' THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE item_booking_summary DROP CONSTRAINT IF EXISTS fk_summary_last_booking_id;
+    ALTER TABLE item_booking_summary DROP CONSTRAINT IF EXISTS fk_summary_next_booking_id;
+
+    ALTER TABLE bookings RENAME TO bookings_legacy;
+    ALTER TABLE bookings_legacy DROP CONSTRAINT pk_booking;
+    ALTER TABLE bookings_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+    ALTER INDEX IF EXISTS idx_bookings_item_start RENAME TO idx_bookings_legacy_item_start;
+    ALTER INDEX IF EXISTS idx_bookings_item_status_end RENAME TO idx_bookings_legacy_item_status_end;
+    ALTER INDEX IF EXISTS idx_bookings_item_booker_status_end RENAME TO idx_bookings_legacy_item_booker_status_end;
+    ALTER INDEX IF EXISTS idx_bookings_booker_start RENAME TO idx_bookings_legacy_booker_start;
+    ALTER INDEX IF EXISTS idx_bookings_booker_status_start RENAME TO idx_bookings_legacy_booker_status_start;
+    ALTER INDEX IF EXISTS idx_bookings_booker_end RENAME TO idx_bookings_legacy_booker_end;
+    ALTER INDEX IF EXISTS idx_bookings_status_start RENAME TO idx_bookings_legacy_status_start;
+    ALTER INDEX IF EXISTS idx_bookings_end_id RENAME TO idx_bookings_legacy_end_id;
+
+    CREATE SEQUENCE IF NOT EXISTS bookings_id_seq;
+    PERFORM setval(''bookings_id_seq'', COALESCE((SELECT MAX(id) FROM bookings_legacy), 0) + 1, false);
+
+    CREATE TABLE bookings (
+        id BIGINT DEFAULT nextval(''bookings_id_seq'') NOT NULL,
+        start_date TIMESTAMP NOT NULL,
+        end_date TIMESTAMP NOT NULL,
+        item_id BIGINT NOT NULL,
+        booker_id BIGINT NOT NULL,
+        status VARCHAR(64) NOT NULL,
+        version BIGINT DEFAULT 0 NOT NULL,
+        CONSTRAINT pk_booking PRIMARY KEY (id, start_date),
+        CONSTRAINT fk_bookings_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+        CONSTRAINT fk_bookings_booker_id FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+    ) PARTITION BY RANGE (start_date);
+    ALTER SEQUENCE bookings_id_seq OWNED BY bookings.id;
+
+    boundary := date_trunc(''month'', GREATEST(LOCALTIMESTAMP,
+            COALESCE((SELECT MAX(start_date) FROM bookings_legacy), LOCALTIMESTAMP))) + INTERVAL ''1 month'';
+    EXECUTE format(''ALTER TABLE bookings ATTACH PARTITION bookings_legacy FOR VALUES FROM (MINVALUE) TO (%L)'',
+            boundary);
+    CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+    CREATE INDEX idx_bookings_item_start ON bookings (item_id, start_date, id);
+    CREATE INDEX idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+    CREATE INDEX idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+    CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+    CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+    CREATE INDEX idx_bookings_booker_end ON bookings (booker_id, end_date);
+    CREATE INDEX idx_bookings_status_start ON bookings (status, start_date);
+    CREATE INDEX idx_bookings_end_id ON bookings (end_date, id);
+END';
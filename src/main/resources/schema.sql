@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, items, bookings, requests, comments;
+DROP TABLE IF EXISTS item_comment_summary_recent, item_comment_summary, item_booking_summary, bookings_archive, users, items, bookings, requests, comments;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -28,6 +28,9 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     start_date TIMESTAMP NOT NULL,
@@ -35,11 +38,56 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
     status VARCHAR(64) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_bookings_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_bookings_booker_id FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end_id ON bookings (end_date, id);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(64) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_archive_booker_id FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_booker_status ON bookings_archive (item_id, booker_id, status);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP,
+    last_end TIMESTAMP,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP,
+    next_end TIMESTAMP,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_summary_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    CONSTRAINT fk_summary_last_booking_id FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL,
+    CONSTRAINT fk_summary_next_booking_id FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_start);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(512) NOT NULL,
@@ -49,4 +97,33 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_comments_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     CONSTRAINT fk_comments_author_id FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE TABLE IF NOT EXISTS item_comment_summary (
+    item_id BIGINT NOT NULL,
+    comment_count BIGINT NOT NULL,
+    last_created TIMESTAMP,
+    CONSTRAINT pk_item_comment_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_comment_summary_item_id FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS item_comment_summary_recent (
+    item_id BIGINT NOT NULL,
+    slot INTEGER NOT NULL,
+    comment_id BIGINT NOT NULL,
+    text VARCHAR(512) NOT NULL,
+    author_name VARCHAR(64) NOT NULL,
+    created TIMESTAMP,
+    CONSTRAINT pk_item_comment_summary_recent PRIMARY KEY (item_id, slot),
+    CONSTRAINT fk_comment_summary_recent_item_id FOREIGN KEY (item_id) REFERENCES item_comment_summary (item_id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_comment_summary_recent_comment_id FOREIGN KEY (comment_id) REFERENCES comments (id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_summary_recent_comment ON item_comment_summary_recent (comment_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiveServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+    @Mock
+    private BookingStatsService bookingStats;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingArchiveService archiveService;
+    private final Item item = Item.builder().id(1L).ownerId(7L).build();
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new BookingArchiveService(bookingRepository, archivedBookingRepository, intervalIndex,
+                bookingStats, new TransactionTemplate(transactionManager), 365, 2);
+    }
+
+    @Test
+    void archiveMovesChunksUntilNoFullChunkIsLeft() {
+        Booking first = booking(1L, NOW.minusYears(3));
+        Booking second = booking(2L, NOW.minusYears(2));
+        Booking third = booking(3L, NOW.minusYears(4));
+        when(archivedBookingRepository.findLatestStart()).thenReturn(Optional.empty());
+        when(bookingRepository.findArchivable(any(), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        archiveService.archive();
+
+        verify(bookingRepository).archiveAll(List.of(1L, 2L));
+        verify(bookingRepository).archiveAll(List.of(3L));
+        verify(intervalIndex).remove(item.getId(), 2L, second.getStart());
+        verify(bookingStats, times(2)).invalidate(item.getOwnerId());
+        assertEquals(second.getStart(), archiveService.latestArchivedStart());
+    }
+
+    @Test
+    void pageReachesArchiveOnlyWhenItEndsBeforeNewestArchivedStart() {
+        when(archivedBookingRepository.findLatestStart()).thenReturn(Optional.of(NOW.minusYears(1)));
+        List<Booking> recent = List.of(booking(5L, NOW), booking(4L, NOW.minusMonths(1)));
+        List<Booking> old = List.of(booking(5L, NOW), booking(3L, NOW.minusYears(2)));
+
+        assertFalse(archiveService.reachesArchive(recent, 2));
+        assertTrue(archiveService.reachesArchive(old, 2));
+        assertTrue(archiveService.reachesArchive(recent, 3));
+        verify(archivedBookingRepository, times(1)).findLatestStart();
+    }
+
+    @Test
+    void pageNeverReachesEmptyArchive() {
+        when(archivedBookingRepository.findLatestStart()).thenReturn(Optional.empty());
+
+        assertFalse(archiveService.reachesArchive(List.of(), 10));
+    }
+
+    private Booking booking(Long id, LocalDateTime start) {
+        return Booking.builder().id(id).item(item).start(start).end(start.plusHours(1))
+                .status(BookingStatus.APPROVED).build();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingConcurrencyStressTest {
+    private static final int THREADS = 64;
+    private static final int HOT_ITEMS = 10;
+    private static final int OPERATIONS_PER_THREAD = 40;
+    private static final int SLOTS = 100;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentCreatesAndApprovalsNeverOverlap() throws Exception {
+        UserDto owner = userService.create(UserDto.builder().name("owner").email("stress-owner@mail.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("booker").email("stress-booker@mail.ru").build());
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < HOT_ITEMS; i++) {
+            ItemDto item = ItemDto.builder().name("item " + i).description("hot item").available(true).build();
+            items.add(itemService.create(owner.getId(), item).getId());
+        }
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Queue<Long> pendingApprovals = new ConcurrentLinkedQueue<>();
+        Map<Long, AtomicInteger> approvalsPerBooking = new ConcurrentHashMap<>();
+        AtomicInteger operations = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    Long pending = random.nextBoolean() ? pendingApprovals.poll() : null;
+                    try {
+                        if (pending != null) {
+                            bookingService.approve(pending, owner.getId(), true);
+                            approvalsPerBooking.computeIfAbsent(pending, id -> new AtomicInteger()).incrementAndGet();
+                        } else {
+                            LocalDateTime from = base.plusHours(random.nextInt(SLOTS));
+                            BookingDto request = BookingDto.builder()
+                                    .itemId(items.get(random.nextInt(HOT_ITEMS)))
+                                    .start(from)
+                                    .end(from.plusHours(1 + random.nextInt(3)))
+                                    .build();
+                            Long id = bookingService.create(request, booker.getId()).getId();
+                            pendingApprovals.add(id);
+                            pendingApprovals.add(id);
+                        }
+                    } catch (NotAvailableException e) {
+                        // overlapping slot or a decision that was already made
+                    }
+                    operations.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        log.info("{} threads on {} items: {} operations in {} s ({} ops/s)", THREADS, HOT_ITEMS, operations.get(),
+                String.format("%.2f", seconds), String.format("%.0f", operations.get() / seconds));
+
+        approvalsPerBooking.forEach((id, count) -> assertEquals(1, count.get(), "booking " + id + " approved twice"));
+        Map<Long, List<Booking>> approved = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertFalse(approved.isEmpty());
+        for (List<Booking> bookings : approved.values()) {
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertFalse(a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd()),
+                            "bookings " + a.getId() + " and " + b.getId() + " overlap");
+                }
+            }
+        }
+    }
+}
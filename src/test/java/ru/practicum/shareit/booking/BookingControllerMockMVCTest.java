@@ -7,18 +7,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.InvalidCursorException;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -103,4 +113,139 @@ public class BookingControllerMockMVCTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[1].id").value(2L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPageByOwnerIdReturnsNextCursor() throws Exception {
+        long userId = 1L;
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(1L);
+        BookingPageDto page = new BookingPageDto(List.of(bookingDto), "next");
+        when(bookingService.findBookingPageByOwner(State.ALL, userId, "", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void findPageByUserIdWithInvalidCursor() throws Exception {
+        long userId = 1L;
+        when(bookingService.findBookingPageByUser(State.ALL, userId, "bad", 10))
+                .thenThrow(new InvalidCursorException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void saveAllReturnsOutcomePerBooking() throws Exception {
+        long userId = 1L;
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingService.decideAll(eq(userId), any())).thenReturn(List.of(
+                new BookingDecisionResultDto(1L, BookingDecisionOutcome.APPROVED),
+                new BookingDecisionResultDto(2L, BookingDecisionOutcome.ALREADY_DECIDED)));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("APPROVED"))
+                .andExpect(jsonPath("$[1].bookingId").value(2L))
+                .andExpect(jsonPath("$[1].outcome").value("ALREADY_DECIDED"));
+    }
+
+    @Test
+    void saveAllRejectsDecisionWithoutBookingId() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"approved\": true}]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).decideAll(anyLong(), any());
+    }
+
+    @Test
+    void createAllReturnsResultPerEntry() throws Exception {
+        long userId = 2L;
+        BookingDto entry = BookingDto.builder().itemId(1L)
+                .start(LocalDateTime.now().plusHours(1)).end(LocalDateTime.now().plusHours(2)).build();
+        BookingDto created = BookingDto.builder().id(7L).build();
+        when(bookingService.createAll(any(), eq(userId))).thenReturn(List.of(
+                new BookingCreationResultDto(0, BookingCreationOutcome.CREATED, created),
+                new BookingCreationResultDto(1, BookingCreationOutcome.OVERLAP, null)));
+
+        mockMvc.perform(post("/bookings/bulk")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(entry, entry))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].booking.id").value(7L))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].outcome").value("OVERLAP"));
+    }
+
+    @Test
+    void createAllRejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createGroupRejectsEmptyItemList() throws Exception {
+        BookingGroupDto group = BookingGroupDto.builder().itemIds(List.of())
+                .start(LocalDateTime.now().plusHours(1)).end(LocalDateTime.now().plusHours(2)).build();
+
+        mockMvc.perform(post("/bookings/group")
+                        .header("X-Sharer-User-Id", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(group)))
+                .andExpect(status().isBadRequest());
+        verify(bookingService, never()).createGroup(any(), anyLong());
+    }
+
+    @Test
+    void streamByOwnerSendsEventsAsServerSentEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(bookingService.subscribeOwner(2L)).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/stream")
+                        .header("X-Sharer-User-Id", 2L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        BookingDto booking = BookingDto.builder().id(7L).status(BookingStatus.WAITING).build();
+        emitter.send(SseEmitter.event().name(BookingEventType.CREATED.name())
+                .data(new BookingEventDto(BookingEventType.CREATED, booking)));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:CREATED")))
+                .andExpect(content().string(containsString("\"id\":7")));
+    }
+
+    @Test
+    void statsByOwnerReturnsCountsPerState() throws Exception {
+        when(bookingService.findStatsByOwner(2L)).thenReturn(new BookingStatsDto(5, 1, 2, 2, 1, 0));
+
+        mockMvc.perform(get("/bookings/owner/stats")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(5))
+                .andExpect(jsonPath("$.current").value(1))
+                .andExpect(jsonPath("$.future").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingDecisionBenchmarkTest {
+    private static final int ITEMS = 20;
+    private static final int BOOKINGS = 2_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void compareBatchDecisionsWithIndividualApprovals() {
+        User owner = user("decision-owner@mail.ru");
+        User booker = user("decision-booker@mail.ru");
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder().name("item " + i).description("item")
+                    .available(true).ownerId(owner.getId()).build()));
+        }
+        List<Long> individual = seed(items, booker, 0);
+        List<Long> batched = seed(items, booker, BOOKINGS);
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < individual.size(); i++) {
+            bookingService.approve(individual.get(i), owner.getId(), i % 2 == 0);
+        }
+        double individualOps = BOOKINGS / ((System.nanoTime() - begin) / 1e9);
+
+        begin = System.nanoTime();
+        for (int from = 0; from < batched.size(); from += BATCH_SIZE) {
+            List<BookingDecisionDto> decisions = new ArrayList<>();
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                decisions.add(new BookingDecisionDto(batched.get(i), i % 2 == 0));
+            }
+            assertTrue(bookingService.decideAll(owner.getId(), decisions).stream()
+                    .allMatch(result -> result.getOutcome() == BookingDecisionOutcome.APPROVED
+                            || result.getOutcome() == BookingDecisionOutcome.REJECTED));
+        }
+        double batchOps = BOOKINGS / ((System.nanoTime() - begin) / 1e9);
+
+        log.info("{} decisions: PATCH /bookings/{id} path {} decisions/s, PATCH /bookings/batch path "
+                        + "(batches of {}) {} decisions/s", BOOKINGS, String.format("%.0f", individualOps),
+                BATCH_SIZE, String.format("%.0f", batchOps));
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setName(email);
+        user.setEmail(email);
+        return userRepository.save(user);
+    }
+
+    private List<Long> seed(List<Item> items, User booker, int offset) {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusHours(offset + i);
+            bookings.add(Booking.builder().start(start).end(start.plusMinutes(30)).item(items.get(i % ITEMS))
+                    .booker(booker).status(BookingStatus.WAITING).build());
+        }
+        return bookingRepository.saveAll(bookings).stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingEventBrokerTest {
+    private final BookingEventBroker broker = new BookingEventBroker(2, 60_000L, 1);
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdown();
+    }
+
+    @Test
+    void publishDeliversEventsOnlyToSubscribersOfOwner() throws InterruptedException {
+        RecordingEmitter owner = new RecordingEmitter(2);
+        RecordingEmitter other = new RecordingEmitter(1);
+        broker.subscribe(1L, owner);
+        broker.subscribe(2L, other);
+
+        broker.publish(1L, BookingEventType.CREATED, booking(10L));
+        broker.publish(1L, BookingEventType.STATUS_CHANGED, booking(10L));
+
+        assertTrue(owner.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, owner.events.size());
+        assertTrue(other.events.isEmpty());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWhenBufferOverflows() throws InterruptedException {
+        BlockingEmitter slow = new BlockingEmitter();
+        broker.subscribe(1L, slow);
+
+        broker.publish(1L, BookingEventType.CREATED, booking(1L));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        broker.publish(1L, BookingEventType.CREATED, booking(2L));
+        broker.publish(1L, BookingEventType.CREATED, booking(3L));
+        assertEquals(1, broker.subscriberCount(1L));
+
+        broker.publish(1L, BookingEventType.CREATED, booking(4L));
+        slow.release.countDown();
+
+        assertEquals(0, broker.subscriberCount(1L));
+    }
+
+    @Test
+    void failedSendRemovesSubscriber() throws InterruptedException {
+        FailingEmitter broken = new FailingEmitter();
+        broker.subscribe(1L, broken);
+
+        broker.publish(1L, BookingEventType.CREATED, booking(1L));
+
+        assertTrue(broken.failed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && broker.subscriberCount(1L) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, broker.subscriberCount(1L));
+    }
+
+    private static BookingDto booking(Long id) {
+        return BookingDto.builder().id(id).status(BookingStatus.WAITING).build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch delivered;
+
+        RecordingEmitter(int expected) {
+            delivered = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder);
+            delivered.countDown();
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            failed.countDown();
+            throw new IOException("Broken pipe");
+        }
+    }
+}
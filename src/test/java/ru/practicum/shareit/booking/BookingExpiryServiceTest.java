@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.lock.StripedLock;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryServiceTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+    @Mock
+    private StripedLock itemLocks;
+    @Mock
+    private ItemBookingSummaryService bookingSummaries;
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingEventBroker events;
+    @Mock
+    private BookingStatsService stats;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingExpiryService expiryService;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        expiryService = new BookingExpiryService(bookingRepository, intervalIndex, itemLocks, bookingSummaries,
+                availabilityIndex, events, stats, new TransactionTemplate(transactionManager), 2);
+        item = Item.builder().id(1L).ownerId(5L).build();
+        booker = User.builder().id(2L).build();
+    }
+
+    @Test
+    void expireWalksChunksAndSkipsBookingsDecidedMeanwhile() {
+        LocalDateTime start = LocalDateTime.now().minusHours(3);
+        Booking first = booking(10L, start);
+        Booking raced = booking(11L, start.plusHours(1));
+        Booking last = booking(12L, start.plusHours(2));
+        when(bookingRepository.findExpirableAfter(any(), eq(BookingCursor.MIN_TIME), eq(0L), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, raced));
+        when(bookingRepository.findExpirableAfter(any(), eq(raced.getStart()), eq(11L), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(last));
+        when(bookingRepository.expireAll(eq(List.of(10L, 11L)), any())).thenReturn(Set.of(10L));
+        when(bookingRepository.expireAll(eq(List.of(12L)), any())).thenReturn(Set.of(12L));
+
+        expiryService.expire();
+
+        verify(intervalIndex).remove(item.getId(), 10L, first.getStart());
+        verify(intervalIndex).remove(item.getId(), 12L, last.getStart());
+        verify(bookingSummaries).onRejected(item.getId(), 10L);
+        verify(bookingSummaries).onRejected(item.getId(), 12L);
+        verify(itemLocks, times(2)).lockAllUntilCompletion(Set.of(item.getId()));
+        verify(availabilityIndex, times(2)).invalidate(item.getId());
+        verify(events, times(2)).publish(eq(item.getOwnerId()), eq(BookingEventType.STATUS_CHANGED),
+                argThat(event -> event.getStatus() == BookingStatus.EXPIRED));
+        verifyNoMoreInteractions(intervalIndex, bookingSummaries);
+        assertEquals(2, expiryService.getLastRunExpired());
+        assertEquals(2, expiryService.getTotalExpired());
+        assertTrue(expiryService.getLastRunLagSeconds() >= 3 * 60 * 60);
+    }
+
+    @Test
+    void expireUpdatesInIdOrderAndMeasuresLagFromExpiredBookings() {
+        LocalDateTime start = LocalDateTime.now().minusHours(3);
+        Booking raced = booking(11L, start);
+        Booking expired = booking(10L, start.plusHours(1));
+        when(bookingRepository.findExpirableAfter(any(), eq(BookingCursor.MIN_TIME), eq(0L), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(raced, expired));
+        when(bookingRepository.findExpirableAfter(any(), eq(expired.getStart()), eq(10L), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of());
+        when(bookingRepository.expireAll(eq(List.of(10L, 11L)), any())).thenReturn(Set.of(10L));
+
+        expiryService.expire();
+
+        assertEquals(1, expiryService.getLastRunExpired());
+        assertTrue(expiryService.getLastRunLagSeconds() < 3 * 60 * 60);
+        assertTrue(expiryService.getLastRunLagSeconds() >= 2 * 60 * 60);
+    }
+
+    @Test
+    void expireWithoutStaleBookingsResetsRunMetrics() {
+        when(bookingRepository.findExpirableAfter(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        expiryService.expire();
+
+        assertEquals(0, expiryService.getLastRunExpired());
+        assertEquals(0, expiryService.getLastRunLagSeconds());
+        verify(bookingRepository, never()).expireAll(any(), any());
+        verifyNoInteractions(itemLocks, events);
+    }
+
+    private Booking booking(Long id, LocalDateTime start) {
+        return Booking.builder().id(id).item(item).booker(booker).start(start).end(start.plusHours(1))
+                .status(BookingStatus.WAITING).build();
+    }
+}
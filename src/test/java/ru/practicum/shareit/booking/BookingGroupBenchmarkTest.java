@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotAvailableException;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingGroupBenchmarkTest {
+    private static final int ITEMS = 12;
+    private static final int GROUP_SIZE = 3;
+    private static final int GROUPS_PER_THREAD = 200;
+    private static final int SLOTS = 2_000;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void overlappingGroupBookingsNeverDeadlock() throws Exception {
+        UserDto owner = userService.create(UserDto.builder().name("owner").email("group-owner@mail.ru").build());
+        UserDto booker = userService.create(UserDto.builder().name("booker").email("group-booker@mail.ru").build());
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(cores, 8); threads *= 2) {
+            List<Long> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS; i++) {
+                ItemDto item = ItemDto.builder().name("item " + i).description("group item").available(true).build();
+                items.add(itemService.create(owner.getId(), item).getId());
+            }
+            run(threads, items, booker.getId());
+        }
+    }
+
+    private void run(int threads, List<Long> items, long bookerId) throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < GROUPS_PER_THREAD; i++) {
+                    Set<Long> group = new HashSet<>();
+                    while (group.size() < GROUP_SIZE) {
+                        group.add(items.get(random.nextInt(ITEMS)));
+                    }
+                    LocalDateTime from = base.plusHours(random.nextInt(SLOTS));
+                    try {
+                        List<BookingDto> created = bookingService.createGroup(BookingGroupDto.builder()
+                                .itemIds(new ArrayList<>(group)).start(from).end(from.plusHours(2)).build(), bookerId);
+                        assertEquals(GROUP_SIZE, created.size());
+                        booked.incrementAndGet();
+                    } catch (NotAvailableException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get(2, TimeUnit.MINUTES);
+            } catch (TimeoutException e) {
+                executor.shutdownNow();
+                fail("Group bookings did not finish with " + threads + " threads, possible deadlock");
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        log.info("{} threads: {} groups booked, {} rejected as overlapping, {} groups/s", threads, booked.get(),
+                conflicts.get(), String.format("%.0f", threads * GROUPS_PER_THREAD / seconds));
+
+        Map<Long, List<Booking>> byItem = bookingRepository.findAll().stream()
+                .filter(booking -> items.contains(booking.getItem().getId()))
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(booked.get() * GROUP_SIZE, byItem.values().stream().mapToInt(List::size).sum(),
+                "a group was booked partially");
+        for (List<Booking> bookings : byItem.values()) {
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertFalse(a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd()),
+                            "bookings " + a.getId() + " and " + b.getId() + " overlap");
+                }
+            }
+        }
+    }
+}
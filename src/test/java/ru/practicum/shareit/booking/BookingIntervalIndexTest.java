@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex intervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        intervalIndex = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @Test
+    void findOverlapLoadsItemOnceAndTreatsIntervalsAsHalfOpen() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(booking(10L, 10, 20)));
+
+        assertEquals(Optional.of(10L), intervalIndex.findOverlap(1L, hour(15), hour(25)));
+        assertEquals(Optional.of(10L), intervalIndex.findOverlap(1L, hour(5), hour(11)));
+        assertTrue(intervalIndex.findOverlap(1L, hour(20), hour(30)).isEmpty());
+        assertTrue(intervalIndex.findOverlap(1L, hour(0), hour(10)).isEmpty());
+
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    void addAndRemoveUpdateLoadedItems() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of());
+        assertTrue(intervalIndex.findOverlap(1L, hour(0), hour(100)).isEmpty());
+
+        intervalIndex.add(1L, 7L, hour(30), hour(40));
+        assertEquals(Optional.of(7L), intervalIndex.findOverlap(1L, hour(35), hour(36)));
+
+        intervalIndex.remove(1L, 7L, hour(30));
+        assertTrue(intervalIndex.findOverlap(1L, hour(35), hour(36)).isEmpty());
+    }
+
+    @Test
+    void addToItemThatWasNeverLoadedIsDeferredToLoad() {
+        intervalIndex.add(2L, 7L, hour(30), hour(40));
+        verifyNoInteractions(bookingRepository);
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(2L), any(), any()))
+                .thenReturn(List.of(booking(7L, 30, 40)));
+        assertEquals(Optional.of(7L), intervalIndex.findOverlap(2L, hour(39), hour(41)));
+    }
+
+    @Test
+    void intervalTreeMatchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(50);
+            tree.insert(id, hour(start), hour(end));
+            intervals.add(new long[]{id, start, end});
+        }
+        for (int i = 0; i < 250; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0], hour(removed[1]));
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int i = 0; i < 2_000; i++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(50);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && interval[2] > start);
+            Long found = tree.findOverlap(hour(start), hour(end));
+            assertEquals(expected, found != null);
+            if (found != null) {
+                long[] match = intervals.stream().filter(interval -> interval[0] == found).findFirst().orElseThrow();
+                assertTrue(match[1] < end && match[2] > start);
+            }
+        }
+    }
+
+    private static Booking booking(Long id, long startHour, long endHour) {
+        return Booking.builder().id(id).start(hour(startHour)).end(hour(endHour)).status(BookingStatus.WAITING).build();
+    }
+
+    private static LocalDateTime hour(long hours) {
+        return BASE.plusHours(hours);
+    }
+}
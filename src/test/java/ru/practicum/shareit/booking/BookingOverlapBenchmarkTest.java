@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest
+class BookingOverlapBenchmarkTest {
+    private static final int BOOKINGS = 10_000;
+    private static final int INDEX_QUERIES = 200_000;
+    private static final int SQL_QUERIES = 2_000;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void compareIntervalIndexWithSqlOverlapQuery() {
+        Item item = seed();
+        BookingIntervalIndex intervalIndex = new BookingIntervalIndex(bookingRepository);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1_000; i++) {
+            long start = random.nextInt(BOOKINGS * 3);
+            boolean fromIndex = intervalIndex.findOverlap(item.getId(), hour(start), hour(start + 2)).isPresent();
+            boolean fromSql = sqlOverlap(item, start);
+            assertEquals(fromSql, fromIndex);
+        }
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < INDEX_QUERIES; i++) {
+            long start = random.nextInt(BOOKINGS * 3);
+            intervalIndex.findOverlap(item.getId(), hour(start), hour(start + 2));
+        }
+        double indexOps = INDEX_QUERIES / ((System.nanoTime() - begin) / 1e9);
+
+        begin = System.nanoTime();
+        for (int i = 0; i < SQL_QUERIES; i++) {
+            sqlOverlap(item, random.nextInt(BOOKINGS * 3));
+        }
+        double sqlOps = SQL_QUERIES / ((System.nanoTime() - begin) / 1e9);
+
+        log.info("Overlap check with {} bookings: interval index {} ops/s, SQL query {} ops/s",
+                BOOKINGS, String.format("%.0f", indexOps), String.format("%.0f", sqlOps));
+    }
+
+    private boolean sqlOverlap(Item item, long start) {
+        return bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(),
+                BookingIntervalIndex.ACTIVE_STATUSES, hour(start + 2), hour(start));
+    }
+
+    private Item seed() {
+        User user = new User();
+        user.setName("owner");
+        user.setEmail("owner@example.com");
+        entityManager.persist(user);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(user.getId());
+        entityManager.persist(item);
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(hour(i * 3L));
+            booking.setEnd(hour(i * 3L + 1));
+            booking.setItem(item);
+            booking.setBooker(user);
+            booking.setStatus(i % 5 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED);
+            entityManager.persist(booking);
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return item;
+    }
+
+    private static LocalDateTime hour(long hours) {
+        return BASE.plusHours(hours);
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for the SQL behind each booking and item lookup and fails when the plan scans
+ * the bookings or items table instead of using an index.
+ */
+@DataJpaTest
+class BookingQueryPlanTest {
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "PUBLIC\\.(BOOKINGS|ITEMS)\\.tableScan|Seq Scan on (bookings|items)\\b");
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+    private static final int USERS = 100;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CapturingStatementInspector inspector;
+
+    private User user;
+    private Item item;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CapturingStatementInspector capturingStatementInspector() {
+            return new CapturingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(CapturingStatementInspector inspector) {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("user");
+        user.setEmail("user@example.com");
+        entityManager.persist(user);
+        item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(user.getId());
+        entityManager.persist(item);
+        entityManager.flush();
+        jdbcTemplate.update("INSERT INTO users (name, email) SELECT 'user ' || x, 'user' || x || '@example.com' "
+                + "FROM SYSTEM_RANGE(1, ?)", USERS);
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) "
+                + "SELECT 'item ' || x, 'item', TRUE, (SELECT MIN(id) FROM users) + MOD(x, ?) "
+                + "FROM SYSTEM_RANGE(1, ?)", USERS, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "SELECT DATEADD('HOUR', x, CURRENT_TIMESTAMP), DATEADD('HOUR', x + 1, CURRENT_TIMESTAMP), "
+                + "(SELECT MIN(id) FROM items) + MOD(x, ?), (SELECT MIN(id) FROM users) + MOD(x, ?), "
+                + "CASE MOD(x, 3) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'APPROVED' ELSE 'REJECTED' END "
+                + "FROM SYSTEM_RANGE(1, ?)", ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookingAndItemQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("decide", () -> bookingRepository.decide(1L, user.getId(), BookingStatus.APPROVED));
+        queries.put("findByBookerId", () -> bookingRepository.findByBookerId(user.getId(), page));
+        queries.put("findByBookerIdAndStatusIs", () -> bookingRepository
+                .findByBookerIdAndStatusIs(user.getId(), BookingStatus.REJECTED, page));
+        queries.put("findByBookerIdAndEndIsAfterAndStartIsBefore", () -> bookingRepository
+                .findByBookerIdAndEndIsAfterAndStartIsBefore(user.getId(), now, now, page));
+        queries.put("findByBookerIdAndEndIsBefore", () -> bookingRepository
+                .findByBookerIdAndEndIsBefore(user.getId(), now, page));
+        queries.put("findByBookerIdAndStartIsAfter", () -> bookingRepository
+                .findByBookerIdAndStartIsAfter(user.getId(), now, page));
+        queries.put("findByBookerIdAndStartIsAfterAndStatusIs", () -> bookingRepository
+                .findByBookerIdAndStartIsAfterAndStatusIs(user.getId(), now, BookingStatus.WAITING, page));
+        queries.put("findByItemOwnerId", () -> bookingRepository.findByItemOwnerId(user.getId(), page));
+        queries.put("findByBookerIdBeforeCursor", () -> bookingRepository.findByBookerIdBeforeCursor(user.getId(),
+                now, 1L, active, BookingCursor.MIN_TIME, BookingCursor.MIN_TIME, BookingCursor.MAX_TIME,
+                PageRequest.of(0, 10)));
+        queries.put("findByItemOwnerIdBeforeCursor", () -> bookingRepository.findByItemOwnerIdBeforeCursor(
+                user.getId(), now, 1L, active, BookingCursor.MIN_TIME, BookingCursor.MIN_TIME,
+                BookingCursor.MAX_TIME, PageRequest.of(0, 10)));
+        queries.put("findCurrentBookingsOwner", () -> bookingRepository
+                .findCurrentBookingsOwner(user.getId(), now, page));
+        queries.put("findPastBookingsOwner", () -> bookingRepository.findPastBookingsOwner(user.getId(), now, page));
+        queries.put("findFutureBookingsOwner", () -> bookingRepository
+                .findFutureBookingsOwner(user.getId(), now, page));
+        queries.put("findWaitingBookingsOwner", () -> bookingRepository
+                .findWaitingBookingsOwner(user.getId(), now, BookingStatus.WAITING, page));
+        queries.put("findRejectedBookingsOwner", () -> bookingRepository
+                .findRejectedBookingsOwner(user.getId(), BookingStatus.REJECTED, page));
+        queries.put("findBookingsItem", () -> bookingRepository.findBookingsItem(item.getId()));
+        queries.put("existsByItemIdAndBookerIdAndStatusAndEndBefore", () -> bookingRepository
+                .existsByItemIdAndBookerIdAndStatusAndEndBefore(item.getId(), user.getId(),
+                        BookingStatus.APPROVED, now));
+        queries.put("findByItemIn", () -> bookingRepository.findByItemIn(List.of(item), Sort.by("start")));
+        queries.put("findLastAndNextBookings", () -> bookingRepository
+                .findLastAndNextBookings(List.of(item.getId()), now));
+        queries.put("findByItemIdAndStatusInAndEndIsAfter", () -> bookingRepository
+                .findByItemIdAndStatusInAndEndIsAfter(item.getId(), active, now));
+        queries.put("existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter", () -> bookingRepository
+                .existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(item.getId(), active, now, now));
+        queries.put("findArchivable", () -> bookingRepository.findArchivable(now.minusYears(1),
+                EnumSet.of(BookingStatus.APPROVED, BookingStatus.EXPIRED), PageRequest.of(0, 100)));
+        queries.put("findBookedItemIds", () -> bookingRepository
+                .findBookedItemIds(List.of(item.getId()), active, now.plusDays(30), now.plusDays(31)));
+        queries.put("findAllByOwnerId", () -> itemRepository.findAllByOwnerId(user.getId(), PageRequest.of(0, 10)));
+        queries.put("findAllByItemRequestIn", () -> itemRepository.findAllByItemRequestIn(List.of()));
+        queries.put("findBatchAfterId", () -> itemRepository.findBatchAfterId(0L, PageRequest.of(0, 10)));
+
+        List<String> scans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            inspector.clear();
+            query.run();
+            for (String sql : inspector.statements()) {
+                String plan = explain(sql);
+                if (FULL_SCAN.matcher(plan).find()) {
+                    scans.add(name + ": " + plan);
+                }
+            }
+        });
+
+        assertTrue(scans.isEmpty(), "Full scans on hot tables:\n" + String.join("\n", scans));
+    }
+
+    private String explain(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        int parameters = 0;
+        while (matcher.find()) {
+            parameters++;
+        }
+        Object[] nulls = new Object[parameters];
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, nulls));
+    }
+
+    static class CapturingStatementInspector implements StatementInspector {
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            if (!sql.regionMatches(true, 0, "insert", 0, 6)) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        List<String> statements() {
+            return new ArrayList<>(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+}
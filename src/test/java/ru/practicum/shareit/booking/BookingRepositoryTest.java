@@ -1,28 +1,40 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.page.CustomPageRequest;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class BookingRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
 
     @Test
     public void testSaveBooking() {
@@ -97,4 +109,327 @@ public class BookingRepositoryTest {
         assertNotNull(newBooking);
         assertEquals(newBooking, bookings);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindLastAndNextBookingsSkipsRejected() {
+        User user = new User();
+        user.setName("user");
+        user.setEmail("user@example.com");
+        entityManager.persist(user);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(user.getId());
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldPast = persistBooking(item, user, now.minusDays(3), BookingStatus.APPROVED);
+        Booking last = persistBooking(item, user, now.minusDays(2), BookingStatus.APPROVED);
+        persistBooking(item, user, now.minusDays(1), BookingStatus.REJECTED);
+        persistBooking(item, user, now.plusDays(1), BookingStatus.REJECTED);
+        Booking next = persistBooking(item, user, now.plusDays(2), BookingStatus.WAITING);
+        persistBooking(item, user, now.plusDays(3), BookingStatus.APPROVED);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Booking> found = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+
+        assertEquals(2, found.size());
+        assertTrue(found.stream().anyMatch(booking -> booking.getId().equals(last.getId())));
+        assertTrue(found.stream().anyMatch(booking -> booking.getId().equals(next.getId())));
+        assertTrue(found.stream().noneMatch(booking -> booking.getId().equals(oldPast.getId())));
+    }
+
+    @Test
+    public void testKeysetPagesWalkBookingsWithoutGapsOrDuplicates() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        List<Booking> expected = new ArrayList<>();
+        expected.add(persistBooking(item, booker, start.plusDays(3), BookingStatus.WAITING));
+        expected.add(persistBooking(item, booker, start.plusDays(2), BookingStatus.APPROVED));
+        expected.add(persistBooking(item, booker, start.plusDays(2), BookingStatus.APPROVED));
+        expected.add(persistBooking(item, booker, start.plusDays(1), BookingStatus.REJECTED));
+        expected.add(persistBooking(item, booker, start.minusDays(1), BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+        expected.sort(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed());
+
+        List<Long> bookerIds = new ArrayList<>();
+        List<Long> ownerIds = new ArrayList<>();
+        BookingCursor bookerCursor = BookingCursor.FIRST;
+        BookingCursor ownerCursor = BookingCursor.FIRST;
+        List<Booking> page;
+        do {
+            page = bookingRepository.findByBookerIdBeforeCursor(booker.getId(), bookerCursor.getStart(),
+                    bookerCursor.getId(), EnumSet.allOf(BookingStatus.class), BookingCursor.MIN_TIME,
+                    BookingCursor.MIN_TIME, BookingCursor.MAX_TIME, PageRequest.of(0, 2));
+            page.forEach(booking -> bookerIds.add(booking.getId()));
+            if (!page.isEmpty()) {
+                bookerCursor = BookingCursor.after(page.get(page.size() - 1));
+            }
+        } while (page.size() == 2);
+        do {
+            page = bookingRepository.findByItemOwnerIdBeforeCursor(owner.getId(), ownerCursor.getStart(),
+                    ownerCursor.getId(), EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                    BookingCursor.MIN_TIME, BookingCursor.MIN_TIME, BookingCursor.MAX_TIME, PageRequest.of(0, 2));
+            page.forEach(booking -> ownerIds.add(booking.getId()));
+            if (!page.isEmpty()) {
+                ownerCursor = BookingCursor.after(page.get(page.size() - 1));
+            }
+        } while (page.size() == 2);
+
+        assertEquals(expected.stream().map(Booking::getId).collect(Collectors.toList()), bookerIds);
+        assertEquals(expected.stream()
+                .filter(booking -> booking.getStatus() != BookingStatus.REJECTED)
+                .map(Booking::getId)
+                .collect(Collectors.toList()), ownerIds);
+    }
+
+    @Test
+    public void testBookingPagesAreLoadedWithSingleStatement() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User booker = new User();
+            booker.setName("booker" + i);
+            booker.setEmail("booker" + i + "@example.com");
+            bookers.add(entityManager.persist(booker));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setDescription("request" + i);
+            request.setRequester(bookers.get(0));
+            entityManager.persist(request);
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("item");
+            item.setAvailable(true);
+            item.setOwnerId(owner.getId());
+            item.setItemRequest(request);
+            entityManager.persist(item);
+            for (User booker : bookers) {
+                persistBooking(item, booker, start.plusHours(bookers.indexOf(booker)), BookingStatus.WAITING);
+            }
+            start = start.plusDays(1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        Pageable page = new CustomPageRequest(0, 20, Sort.by(Sort.Direction.DESC, "start"));
+        LocalDateTime now = LocalDateTime.now();
+
+        statistics.clear();
+        List<BookingDto> byBooker = BookingMapper.toBookingDto(bookingRepository
+                .findByBookerIdAndStartIsAfter(bookers.get(1).getId(), now, page));
+        assertEquals(5, byBooker.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        List<BookingDto> byOwner = BookingMapper.toBookingDto(bookingRepository
+                .findByItemOwnerId(owner.getId(), page));
+        assertEquals(15, byOwner.size());
+        assertTrue(byOwner.stream().allMatch(booking -> booking.getItem().getRequestId() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        BookingMapper.toBookingDto(bookingRepository.findById(byOwner.get(0).getId()).orElseThrow());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testDecideOnlyTransitionsWaitingBookingOfOwner() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        entityManager.persist(item);
+
+        Booking booking = persistBooking(item, booker, LocalDateTime.now().plusDays(1), BookingStatus.WAITING);
+        entityManager.flush();
+        Long version = booking.getVersion();
+
+        assertEquals(0, bookingRepository.decide(booking.getId(), booker.getId(), BookingStatus.APPROVED));
+        assertEquals(1, bookingRepository.decide(booking.getId(), owner.getId(), BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.decide(booking.getId(), owner.getId(), BookingStatus.REJECTED));
+
+        Booking decided = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(BookingStatus.APPROVED, decided.getStatus());
+        assertEquals(version + 1, decided.getVersion());
+    }
+
+    @Test
+    public void testExpireWalksStartedWaitingBookingsByKeyset() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking oldest = persistBooking(item, booker, now.minusDays(3), BookingStatus.WAITING);
+        Booking older = persistBooking(item, booker, now.minusDays(2), BookingStatus.WAITING);
+        Booking sameStart = persistBooking(item, booker, now.minusDays(2), BookingStatus.WAITING);
+        persistBooking(item, booker, now.minusDays(1), BookingStatus.APPROVED);
+        persistBooking(item, booker, now.plusDays(1), BookingStatus.WAITING);
+        entityManager.flush();
+
+        List<Booking> first = bookingRepository.findExpirableAfter(now, BookingCursor.MIN_TIME, 0L,
+                PageRequest.of(0, 2));
+        assertEquals(List.of(oldest.getId(), older.getId()),
+                first.stream().map(Booking::getId).collect(Collectors.toList()));
+        List<Booking> second = bookingRepository.findExpirableAfter(now, older.getStart(), older.getId(),
+                PageRequest.of(0, 2));
+        assertEquals(List.of(sameStart.getId()), second.stream().map(Booking::getId).collect(Collectors.toList()));
+
+        assertEquals(Set.of(oldest.getId(), older.getId()),
+                bookingRepository.expireAll(List.of(oldest.getId(), older.getId()), now));
+        assertEquals(Set.of(), bookingRepository.expireAll(List.of(oldest.getId()), now));
+        entityManager.clear();
+        assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(oldest.getId()).orElseThrow().getStatus());
+        assertEquals(List.of(sameStart.getId()), bookingRepository.findExpirableAfter(now, BookingCursor.MIN_TIME,
+                0L, PageRequest.of(0, 10)).stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testArchiveMovesEndedBookingsNotReferencedBySummary() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking oldest = persistBooking(item, booker, now.minusYears(3), BookingStatus.APPROVED);
+        Booking last = persistBooking(item, booker, now.minusYears(2), BookingStatus.APPROVED);
+        Booking recent = persistBooking(item, booker, now.minusDays(1), BookingStatus.APPROVED);
+        persistBooking(item, booker, now.minusYears(4), BookingStatus.REJECTED);
+        persistBooking(item, booker, now.minusYears(4).plusDays(1), BookingStatus.WAITING);
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setLast(last);
+        entityManager.persist(summary);
+        entityManager.flush();
+
+        List<Booking> archivable = bookingRepository.findArchivable(now.minusYears(1),
+                EnumSet.of(BookingStatus.APPROVED, BookingStatus.EXPIRED), PageRequest.of(0, 10));
+        assertEquals(List.of(oldest.getId()), archivable.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(1, bookingRepository.archiveAll(List.of(oldest.getId())));
+        entityManager.clear();
+
+        assertTrue(bookingRepository.findById(oldest.getId()).isEmpty());
+        List<ArchivedBooking> archived = archivedBookingRepository.findByItemOwnerId(owner.getId(),
+                PageRequest.of(0, 10));
+        assertEquals(1, archived.size());
+        assertEquals(oldest.getStart(), archived.get(0).getStart());
+        assertEquals("booker", archived.get(0).getBooker().getName());
+        assertEquals(List.of(oldest.getId()), archivedBookingRepository.findByBookerIdBeforeCursor(booker.getId(),
+                recent.getStart(), recent.getId(), PageRequest.of(0, 10)).stream()
+                .map(ArchivedBooking::getId).collect(Collectors.toList()));
+        assertEquals(oldest.getStart(), archivedBookingRepository.findLatestStart().orElseThrow());
+        assertTrue(archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(item.getId(), booker.getId(),
+                BookingStatus.APPROVED));
+    }
+
+    @Test
+    public void testCountByOwnerPerStateCountsArchivedBookingsAsPastOnly() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@example.com");
+        entityManager.persist(booker);
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("item");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        entityManager.persist(item);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = persistBooking(item, booker, now.minusYears(2), BookingStatus.APPROVED);
+        Booking current = persistBooking(item, booker, now.minusMinutes(30), BookingStatus.APPROVED);
+        Booking waiting = persistBooking(item, booker, now.plusDays(1), BookingStatus.WAITING);
+        persistBooking(item, booker, now.plusDays(2), BookingStatus.REJECTED);
+        Booking archivedRejected = persistBooking(item, booker, now.minusYears(3), BookingStatus.REJECTED);
+        entityManager.flush();
+        assertEquals(2, bookingRepository.archiveAll(List.of(past.getId(), archivedRejected.getId())));
+
+        BookingStats stats = bookingRepository.countByOwnerPerState(owner.getId(), now);
+
+        assertEquals(5, stats.getTotal());
+        assertEquals(1, stats.getCurrentCount());
+        assertEquals(2, stats.getPastCount());
+        assertEquals(2, stats.getFutureCount());
+        assertEquals(1, stats.getWaitingCount());
+        assertEquals(1, stats.getRejectedCount());
+        assertEquals(waiting.getStart(), stats.getNextStart());
+        assertEquals(current.getEnd(), stats.getNextEnd());
+        assertEquals(0, bookingRepository.countByOwnerPerState(booker.getId(), now).getTotal());
+    }
+
+    private Booking persistBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setBooker(booker);
+        booking.setItem(item);
+        booking.setStatus(status);
+        return entityManager.persist(booking);
+    }
+}
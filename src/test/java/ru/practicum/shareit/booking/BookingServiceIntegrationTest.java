@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest(properties = {"db.name=test", "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingServiceIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testCreateReadsOnceAndWritesOnce() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker@mail.ru");
+        entityManager.persist(booker);
+        ItemDto item = itemService.create(owner.getId(),
+                ItemDto.builder().name("Drill").description("Cordless").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        bookingService.create(bookingDto(item.getId(), start), booker.getId());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookingDto created = bookingService.create(bookingDto(item.getId(), start.minusDays(1)), booker.getId());
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("booking target read, booking insert and summary update")
+                .isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(created.getItem().getName()).isEqualTo("Drill");
+        assertThat(created.getBooker().getEmail()).isEqualTo("booker@mail.ru");
+
+        entityManager.clear();
+        assertThat(itemService.findItemById(item.getId(), owner.getId()).getNextBooking().getId())
+                .isEqualTo(created.getId());
+    }
+
+    @Test
+    public void testDecideAllAppliesBatchInsideTransaction() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("batch-owner@mail.ru");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("batch-booker@mail.ru");
+        entityManager.persist(booker);
+        ItemDto item = itemService.create(owner.getId(),
+                ItemDto.builder().name("Saw").description("Hand saw").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long approved = bookingService.create(bookingDto(item.getId(), start), booker.getId()).getId();
+        Long rejected = bookingService.create(bookingDto(item.getId(), start.plusDays(1)), booker.getId()).getId();
+
+        List<BookingDecisionResultDto> results = bookingService.decideAll(owner.getId(), List.of(
+                new BookingDecisionDto(approved, true), new BookingDecisionDto(rejected, false)));
+
+        assertThat(results).extracting(BookingDecisionResultDto::getOutcome)
+                .containsExactly(BookingDecisionOutcome.APPROVED, BookingDecisionOutcome.REJECTED);
+        entityManager.clear();
+        assertThat(entityManager.find(Booking.class, approved).getStatus()).isEqualTo(BookingStatus.APPROVED);
+        assertThat(entityManager.find(Booking.class, rejected).getStatus()).isEqualTo(BookingStatus.REJECTED);
+        assertThat(bookingService.decideAll(owner.getId(), List.of(new BookingDecisionDto(approved, false))))
+                .extracting(BookingDecisionResultDto::getOutcome)
+                .containsExactly(BookingDecisionOutcome.ALREADY_DECIDED);
+    }
+
+    @Test
+    public void testDecideAllReadsBookingsWithItemsAndBookersInOneQuery() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("decide-owner@mail.ru");
+        entityManager.persist(owner);
+        ItemDto item = itemService.create(owner.getId(),
+                ItemDto.builder().name("Saw").description("Hand saw").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User booker = new User();
+            booker.setName("booker " + i);
+            booker.setEmail("decide-booker-" + i + "@mail.ru");
+            entityManager.persist(booker);
+            Long bookingId = bookingService.create(bookingDto(item.getId(), start.plusDays(i)), booker.getId())
+                    .getId();
+            decisions.add(new BookingDecisionDto(bookingId, true));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(bookingService.decideAll(owner.getId(), decisions))
+                .extracting(BookingDecisionResultDto::getOutcome)
+                .containsOnly(BookingDecisionOutcome.APPROVED);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("one read of bookings with items and bookers; the updates go through a JDBC batch")
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void testCreateAllInsertsAcceptedEntriesInOneBatch() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("bulk-owner@mail.ru");
+        entityManager.persist(owner);
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("bulk-booker@mail.ru");
+        entityManager.persist(booker);
+        ItemDto drill = itemService.create(owner.getId(),
+                ItemDto.builder().name("Drill").description("Cordless").available(true).build());
+        ItemDto ladder = itemService.create(owner.getId(),
+                ItemDto.builder().name("Ladder").description("Folding").available(true).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingCreationResultDto> results = bookingService.createAll(List.of(
+                bookingDto(drill.getId(), start.plusDays(1)),
+                bookingDto(drill.getId(), start.plusDays(1).plusHours(1)),
+                bookingDto(ladder.getId(), start),
+                bookingDto(drill.getId(), start)), booker.getId());
+
+        assertThat(results).extracting(BookingCreationResultDto::getOutcome)
+                .containsExactly(BookingCreationOutcome.CREATED, BookingCreationOutcome.OVERLAP,
+                        BookingCreationOutcome.CREATED, BookingCreationOutcome.CREATED);
+        entityManager.clear();
+        Booking stored = entityManager.find(Booking.class, results.get(3).getBooking().getId());
+        assertThat(stored.getStatus()).isEqualTo(BookingStatus.WAITING);
+        assertThat(stored.getVersion()).isZero();
+        assertThat(itemService.findItemById(drill.getId(), owner.getId()).getNextBooking().getId())
+                .isEqualTo(stored.getId());
+        assertThat(itemService.findItemById(ladder.getId(), owner.getId()).getNextBooking().getId())
+                .isEqualTo(results.get(2).getBooking().getId());
+    }
+
+    private static BookingDto bookingDto(Long itemId, LocalDateTime start) {
+        return BookingDto.builder().itemId(itemId).start(start).end(start.plusHours(3)).build();
+    }
+}
@@ -3,28 +3,42 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.OperationAccessException;
 import ru.practicum.shareit.exception.TimeDataException;
 import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.comment.CommentEligibilityCache;
+import ru.practicum.shareit.lock.StripedLock;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,12 +57,33 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private ItemService itemService;
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+    @Mock
+    private StripedLock itemLocks;
+    @Mock
+    private ItemBookingSummaryService bookingSummaries;
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+    @Mock
+    private BookingEventBroker events;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+    @Mock
+    private BookingArchiveService archive;
+    @Mock
+    private BookingStatsService stats;
+    @Mock
+    private CommentEligibilityCache commentEligibility;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        bookingService = new BookingService(bookingRepository, userRepository, itemService);
+        UserExistenceService userExistence = new UserExistenceService(userRepository, 100, 1000);
+        bookingService = new BookingService(bookingRepository, userRepository, itemRepository,
+                intervalIndex, itemLocks, bookingSummaries, availabilityIndex, events,
+                archivedBookingRepository, archive, stats, commentEligibility, userExistence);
 
         bookerDto = UserDto.builder().id(1L).name("a").email("a@mail.ru").build();
         booker = UserMapper.toUser(bookerDto);
@@ -68,12 +103,29 @@ public class BookingServiceTest {
     @Test
     public void testCreateValidData() {
         long bookerId = booker.getId();
-        when(userRepository.findById(bookerId)).thenReturn(Optional.ofNullable(booker));
-        when(itemService.findItemById(bookingDto.getItemId(), bookerId)).thenReturn(ItemMapper.toItemDto(item));
-        when(itemService.findOwnerId(item.getId())).thenReturn(2L);
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.of(target(item, booker)));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(bookerId)).thenReturn(booker);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         BookingDto result = bookingService.create(bookingDto, bookerId);
         assertNotNull(result);
+        assertEquals(item.getName(), result.getItem().getName());
+        assertEquals(booker.getEmail(), result.getBooker().getEmail());
+        verify(itemLocks).lockUntilCompletion(item.getId());
+        verify(intervalIndex).add(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        verify(bookingSummaries).onCreated(booking);
+        verify(events).publish(item.getOwnerId(), BookingEventType.CREATED, result);
+        verify(userRepository, never()).findById(any());
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testCreateOverlappingBooking() {
+        long bookerId = booker.getId();
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.of(target(item, booker)));
+        when(intervalIndex.findOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd())).thenReturn(Optional.of(5L));
+        assertThrows(NotAvailableException.class, () -> bookingService.create(bookingDto, bookerId));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -96,9 +148,8 @@ public class BookingServiceTest {
         Item item = new Item();
         item.setId(bookingDto.getItemId());
         item.setAvailable(true);
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(itemService.findItemById(bookingDto.getItemId(), bookerId)).thenReturn(ItemMapper.toItemDto(item));
-        when(itemService.findOwnerId(item.getId())).thenReturn(bookerId);
+        item.setOwnerId(bookerId);
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.of(target(item, booker)));
         assertThrows(OperationAccessException.class, () -> bookingService.create(bookingDto, bookerId));
     }
 
@@ -106,12 +157,28 @@ public class BookingServiceTest {
     public void testCreateItemNotAvailable() {
         Long bookerId = booker.getId();
         item.setAvailable(false);
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(itemService.findItemById(bookingDto.getItemId(), bookerId)).thenReturn(ItemMapper.toItemDto(item));
-        when(itemService.findOwnerId(item.getId())).thenReturn(2L);
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.of(target(item, booker)));
         assertThrows(NotAvailableException.class, () -> bookingService.create(bookingDto, bookerId));
     }
 
+    @Test
+    public void testCreateUnknownBooker() {
+        Long bookerId = booker.getId();
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(bookerId)).thenReturn(false);
+        NotFoundException e = assertThrows(NotFoundException.class, () -> bookingService.create(bookingDto, bookerId));
+        assertTrue(e.getMessage().startsWith("User"));
+    }
+
+    @Test
+    public void testCreateUnknownItem() {
+        Long bookerId = booker.getId();
+        when(bookingRepository.findBookingTarget(item.getId(), bookerId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(bookerId)).thenReturn(true);
+        NotFoundException e = assertThrows(NotFoundException.class, () -> bookingService.create(bookingDto, bookerId));
+        assertTrue(e.getMessage().startsWith("Item"));
+    }
+
     @Test
     public void testFindBookingByIdValid() {
         long bookingId = booking.getId();
@@ -129,6 +196,19 @@ public class BookingServiceTest {
         assertThrows(NotFoundException.class, () -> bookingService.findBookingById(bookingId, userId));
     }
 
+    @Test
+    public void testFindBookingByIdFallsBackToArchive() {
+        ArchivedBooking archived = ArchivedBooking.builder().id(9L).start(booking.getStart().minusYears(2))
+                .end(booking.getEnd().minusYears(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build();
+        when(bookingRepository.findById(archived.getId())).thenReturn(Optional.empty());
+        when(archivedBookingRepository.findById(archived.getId())).thenReturn(Optional.of(archived));
+
+        BookingDto result = bookingService.findBookingById(archived.getId(), booker.getId());
+
+        assertEquals(archived.getId(), result.getId());
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+    }
+
     @Test
     public void findAllBookingsByUserValidTest() {
         long userId = 2L;
@@ -136,13 +216,40 @@ public class BookingServiceTest {
         int size = 10;
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerId(eq(userId), any())).thenReturn(bookings);
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.ALL, userId, from, size);
         assertEquals(expectedBookingDtoList.size(), result.size());
         assertEquals(expectedBookingDtoList.get(0).getId(), result.get(0).getId());
     }
 
+    @Test
+    public void findAllBookingsByUserMergesArchiveWhenPageReachesIt() {
+        long userId = booker.getId();
+        ArchivedBooking archived = ArchivedBooking.builder().id(9L).start(booking.getStart().minusYears(2))
+                .end(booking.getEnd().minusYears(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findByBookerId(eq(userId), any())).thenReturn(List.of(booking));
+        when(archive.reachesArchive(List.of(booking), 2)).thenReturn(true);
+        when(archivedBookingRepository.findByBookerId(userId, PageRequest.of(0, 2))).thenReturn(List.of(archived));
+
+        List<BookingDto> result = bookingService.findAllBookingsByUser(State.ALL, userId, 0, 2);
+
+        assertEquals(List.of(booking.getId(), archived.getId()),
+                result.stream().map(BookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void findAllBookingsByUserSkipsArchiveForRecentPage() {
+        long userId = booker.getId();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findByBookerIdAndEndIsBefore(eq(userId), any(), any())).thenReturn(List.of(booking));
+
+        assertEquals(1, bookingService.findAllBookingsByUser(State.PAST, userId, 0, 1).size());
+        verify(bookingRepository, times(1)).findByBookerIdAndEndIsBefore(eq(userId), any(), any());
+        verifyNoInteractions(archivedBookingRepository);
+    }
+
     @Test
     void findAllBookingsByUserCurrentState() {
         long userId = 1L;
@@ -151,7 +258,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndEndIsAfterAndStartIsBefore(eq(userId), any(), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.CURRENT, userId, from, size);
@@ -167,7 +274,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndEndIsBefore(eq(userId), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.PAST, userId, from, size);
@@ -184,7 +291,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartIsAfter(eq(userId), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.FUTURE, userId, from, size);
@@ -201,7 +308,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStartIsAfterAndStatusIs(eq(userId), any(), eq(BookingStatus.WAITING), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.WAITING, userId, from, size);
@@ -218,7 +325,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findByBookerIdAndStatusIs(eq(userId), eq(BookingStatus.REJECTED), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByUser(State.REJECTED, userId, from, size);
@@ -233,7 +340,7 @@ public class BookingServiceTest {
         int from = 0;
         int size = 10;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
 
         assertThrows(NotAvailableException.class, () -> bookingService.findAllBookingsByUser(State.UNSUPPORTED_STATUS, userId, from, size));
     }
@@ -244,7 +351,7 @@ public class BookingServiceTest {
         int from = 0;
         int size = 10;
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> bookingService.findAllBookingsByUser(State.ALL, userId, from, size));
     }
@@ -254,11 +361,11 @@ public class BookingServiceTest {
         long userId = 2L;
         int from = 0;
         int size = 10;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> {
             bookingService.findAllBookingsByUser(State.ALL, userId, from, size);
         });
-        verify(userRepository).findById(userId);
+        verify(userRepository).existsById(userId);
     }
 
     @Test
@@ -269,7 +376,7 @@ public class BookingServiceTest {
         State state = State.ALL;
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(ownerId)).thenReturn(true);
         when(bookingRepository.findByItemOwnerId(anyLong(), any())).thenReturn(bookings);
         List<BookingDto> result = bookingService.findAllBookingsByOwner(state, ownerId, from, size);
         assertEquals(expectedBookingDtoList.size(), result.size());
@@ -284,7 +391,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findCurrentBookingsOwner(eq(userId), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByOwner(State.CURRENT, userId, from, size);
@@ -300,7 +407,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findPastBookingsOwner(eq(userId), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByOwner(State.PAST, userId, from, size);
@@ -317,7 +424,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findFutureBookingsOwner(eq(userId), any(), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByOwner(State.FUTURE, userId, from, size);
@@ -334,7 +441,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findWaitingBookingsOwner(eq(userId), any(), eq(BookingStatus.WAITING), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByOwner(State.WAITING, userId, from, size);
@@ -351,7 +458,7 @@ public class BookingServiceTest {
         List<Booking> bookings = Collections.singletonList(booking);
         List<BookingDto> expectedBookingDtoList = BookingMapper.toBookingDto(bookings);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.findRejectedBookingsOwner(eq(userId), eq(BookingStatus.REJECTED), any())).thenReturn(bookings);
 
         List<BookingDto> result = bookingService.findAllBookingsByOwner(State.REJECTED, userId, from, size);
@@ -360,31 +467,327 @@ public class BookingServiceTest {
         assertEquals(expectedBookingDtoList.get(0).getStatus(), result.get(0).getStatus());
     }
 
+    @Test
+    public void testFindBookingPageByUserReturnsCursorOfLastBooking() {
+        Booking older = Booking.builder().id(2L).start(booking.getStart().minusDays(1))
+                .end(booking.getEnd().minusDays(1)).item(item).booker(booker).build();
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
+        when(bookingRepository.findByBookerIdBeforeCursor(eq(booker.getId()), eq(BookingCursor.FIRST.getStart()),
+                eq(BookingCursor.FIRST.getId()), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(booking, older));
+
+        BookingPageDto result = bookingService.findBookingPageByUser(State.ALL, booker.getId(), "", 2);
+
+        assertEquals(2, result.getBookings().size());
+        assertEquals(BookingCursor.after(older), BookingCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    public void testFindBookingPageByOwnerMergesArchivedPastBookings() {
+        Booking older = Booking.builder().id(2L).start(booking.getStart().minusYears(1))
+                .end(booking.getEnd().minusYears(1)).item(item).booker(booker).build();
+        ArchivedBooking archived = ArchivedBooking.builder().id(1L).start(older.getStart().plusDays(1))
+                .end(older.getEnd().plusDays(1)).item(item).booker(booker).status(BookingStatus.APPROVED).build();
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(bookingRepository.findByItemOwnerIdBeforeCursor(eq(user.getId()), any(), any(), any(), any(), any(),
+                any(), any())).thenReturn(List.of(booking, older));
+        when(archive.reachesArchive(List.of(booking, older), 2)).thenReturn(true);
+        when(archivedBookingRepository.findByItemOwnerIdBeforeCursor(user.getId(), BookingCursor.FIRST.getStart(),
+                BookingCursor.FIRST.getId(), PageRequest.of(0, 2))).thenReturn(List.of(archived));
+
+        BookingPageDto result = bookingService.findBookingPageByOwner(State.PAST, user.getId(), "", 2);
+
+        assertEquals(List.of(booking.getId(), archived.getId()),
+                result.getBookings().stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(archived.getStart(), BookingCursor.decode(result.getNextCursor()).getStart());
+    }
+
+    @Test
+    public void testFindBookingPageByOwnerLastPageHasNoCursor() {
+        BookingCursor cursor = BookingCursor.after(booking);
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(bookingRepository.findByItemOwnerIdBeforeCursor(eq(user.getId()), eq(cursor.getStart()),
+                eq(cursor.getId()), eq(EnumSet.of(BookingStatus.REJECTED)), any(), any(), any(), any()))
+                .thenReturn(List.of(booking));
+
+        BookingPageDto result = bookingService.findBookingPageByOwner(State.REJECTED, user.getId(),
+                cursor.encode(), 2);
+
+        assertEquals(1, result.getBookings().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void testFindBookingPageRejectsMalformedCursor() {
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
+
+        assertThrows(InvalidCursorException.class,
+                () -> bookingService.findBookingPageByUser(State.ALL, booker.getId(), "not-a-cursor", 2));
+        verify(bookingRepository, never()).findByBookerIdBeforeCursor(any(), any(), any(), any(), any(), any(),
+                any(), any());
+    }
+
     @Test
     public void testApproveValidData() {
         long bookingId = booking.getId();
         long userId = user.getId();
-        Boolean approve = true;
         booking.setStatus(BookingStatus.WAITING);
-        BookingDto expectedBookingDto = BookingMapper.toBookingDto(booking);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
-        when(itemService.findOwnerId(booking.getItem().getId())).thenReturn(item.getOwnerId());
-        BookingDto result = bookingService.approve(bookingId, userId, approve);
-        assertEquals(expectedBookingDto.getId(), result.getId());
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.decide(bookingId, userId, BookingStatus.APPROVED)).thenReturn(1);
+        BookingDto result = bookingService.approve(bookingId, userId, true);
+        assertEquals(bookingId, result.getId());
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(intervalIndex).add(item.getId(), bookingId, booking.getStart(), booking.getEnd());
+        verify(events).publish(item.getOwnerId(), BookingEventType.STATUS_CHANGED, result);
+        verify(commentEligibility).onApproved(booking.getBooker().getId(), item.getId(), booking.getEnd());
+        verifyNoInteractions(itemLocks, bookingSummaries);
     }
 
     @Test
     public void testApproveValidDataFalse() {
         long bookingId = booking.getId();
         long userId = user.getId();
-        Boolean approve = false;
         booking.setStatus(BookingStatus.WAITING);
-        BookingDto expectedBookingDto = BookingMapper.toBookingDto(booking);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.ofNullable(booking));
-        when(itemService.findOwnerId(booking.getItem().getId())).thenReturn(item.getOwnerId());
-        BookingDto result = bookingService.approve(bookingId, userId, approve);
-        assertEquals(expectedBookingDto.getId(), result.getId());
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.decide(bookingId, userId, BookingStatus.REJECTED)).thenReturn(1);
+        BookingDto result = bookingService.approve(bookingId, userId, false);
+        assertEquals(bookingId, result.getId());
         assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verify(intervalIndex).remove(item.getId(), bookingId, booking.getStart());
+        InOrder order = inOrder(itemLocks, bookingRepository);
+        order.verify(itemLocks).lockUntilCompletion(item.getId());
+        order.verify(bookingRepository).decide(bookingId, userId, BookingStatus.REJECTED);
+        verify(bookingSummaries).onRejected(item.getId(), bookingId);
+        verifyNoInteractions(commentEligibility);
+    }
+
+    @Test
+    public void testApproveAlreadyDecided() {
+        long bookingId = booking.getId();
+        long userId = user.getId();
+        booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        assertThrows(NotAvailableException.class, () -> bookingService.approve(bookingId, userId, false));
+        verify(bookingRepository, never()).decide(anyLong(), anyLong(), any());
+        verifyNoInteractions(intervalIndex, itemLocks, bookingSummaries, availabilityIndex, events);
+    }
+
+    @Test
+    public void testApproveDecidedConcurrently() {
+        long bookingId = booking.getId();
+        long userId = user.getId();
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.decide(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        assertThrows(NotAvailableException.class, () -> bookingService.approve(bookingId, userId, true));
+        verifyNoInteractions(intervalIndex, commentEligibility, events);
+    }
+
+    @Test
+    public void testApproveByNotOwner() {
+        long bookingId = booking.getId();
+        long userId = user.getId() + 100;
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        assertThrows(OperationAccessException.class, () -> bookingService.approve(bookingId, userId, true));
+        verify(bookingRepository, never()).decide(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void testApproveUnknownBooking() {
+        when(bookingRepository.findById(999L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> bookingService.approve(999L, user.getId(), true));
+    }
+
+    @Test
+    public void testDecideAllReportsOutcomePerBooking() {
+        long ownerId = user.getId();
+        booking.setStatus(BookingStatus.WAITING);
+        Booking rejected = Booking.builder().id(2L).start(booking.getStart()).end(booking.getEnd())
+                .item(item).booker(booker).status(BookingStatus.WAITING).build();
+        Booking decided = Booking.builder().id(3L).item(item).booker(booker).status(BookingStatus.APPROVED).build();
+        Item foreignItem = Item.builder().id(2L).ownerId(booker.getId()).build();
+        Booking foreign = Booking.builder().id(4L).item(foreignItem).booker(user).status(BookingStatus.WAITING).build();
+        Booking raced = Booking.builder().id(5L).item(item).booker(booker).status(BookingStatus.WAITING).build();
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(Set.of(1L, 2L, 3L, 4L, 5L, 6L)))
+                .thenReturn(List.of(booking, rejected, decided, foreign, raced));
+        when(bookingRepository.decideAll(ownerId, Map.of(1L, BookingStatus.APPROVED, 2L, BookingStatus.REJECTED,
+                5L, BookingStatus.APPROVED))).thenReturn(Set.of(1L, 2L));
+
+        List<BookingDecisionResultDto> results = bookingService.decideAll(ownerId, List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false),
+                new BookingDecisionDto(3L, true), new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(5L, true), new BookingDecisionDto(6L, true),
+                new BookingDecisionDto(1L, false)));
+
+        assertEquals(List.of(BookingDecisionOutcome.APPROVED, BookingDecisionOutcome.REJECTED,
+                        BookingDecisionOutcome.ALREADY_DECIDED, BookingDecisionOutcome.NOT_OWNER,
+                        BookingDecisionOutcome.ALREADY_DECIDED, BookingDecisionOutcome.NOT_FOUND,
+                        BookingDecisionOutcome.DUPLICATE),
+                results.stream().map(BookingDecisionResultDto::getOutcome).collect(Collectors.toList()));
+        verify(intervalIndex).add(item.getId(), 1L, booking.getStart(), booking.getEnd());
+        verify(intervalIndex).remove(item.getId(), 2L, rejected.getStart());
+        verify(itemLocks).lockAllUntilCompletion(List.of(item.getId()));
+        verify(bookingSummaries).onRejected(item.getId(), 2L);
+        verify(events).publish(eq(ownerId), eq(BookingEventType.STATUS_CHANGED),
+                argThat(event -> event.getId() == 1L && event.getStatus() == BookingStatus.APPROVED));
+        verify(events).publish(eq(ownerId), eq(BookingEventType.STATUS_CHANGED),
+                argThat(event -> event.getId() == 2L && event.getStatus() == BookingStatus.REJECTED));
+        verify(commentEligibility).onApproved(booking.getBooker().getId(), item.getId(), booking.getEnd());
+        verifyNoMoreInteractions(intervalIndex, bookingSummaries, events, commentEligibility);
+    }
+
+    @Test
+    public void testDecideAllUpdatesBookingsInIdOrder() {
+        long ownerId = user.getId();
+        booking.setStatus(BookingStatus.WAITING);
+        Booking second = Booking.builder().id(2L).item(item).booker(booker).status(BookingStatus.WAITING).build();
+        Booking third = Booking.builder().id(5L).item(item).booker(booker).status(BookingStatus.WAITING).build();
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(Set.of(1L, 2L, 5L))).thenReturn(List.of(third, booking, second));
+        List<Long> updateOrder = new ArrayList<>();
+        when(bookingRepository.decideAll(eq(ownerId), any())).thenAnswer(invocation -> {
+            Map<Long, BookingStatus> decisions = invocation.getArgument(1);
+            updateOrder.addAll(decisions.keySet());
+            return Set.of();
+        });
+
+        bookingService.decideAll(ownerId, List.of(new BookingDecisionDto(5L, true),
+                new BookingDecisionDto(1L, false), new BookingDecisionDto(2L, true)));
+
+        assertEquals(List.of(1L, 2L, 5L), updateOrder);
+    }
+
+    @Test
+    public void testSubscribeOwner() {
+        SseEmitter emitter = new SseEmitter();
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(events.subscribe(user.getId())).thenReturn(emitter);
+        assertSame(emitter, bookingService.subscribeOwner(user.getId()));
+    }
+
+    @Test
+    public void testSubscribeUnknownOwner() {
+        when(userRepository.existsById(999L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> bookingService.subscribeOwner(999L));
+        verifyNoInteractions(events);
+    }
+
+    @Test
+    public void testDecideAllWithoutPendingDecisionsSkipsUpdate() {
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findAllWithItemAndBookerByIdIn(Set.of(booking.getId()))).thenReturn(List.of(booking));
+
+        List<BookingDecisionResultDto> results = bookingService.decideAll(user.getId(),
+                List.of(new BookingDecisionDto(booking.getId(), true)));
+
+        assertEquals(BookingDecisionOutcome.ALREADY_DECIDED, results.get(0).getOutcome());
+        verify(bookingRepository, never()).decideAll(anyLong(), any());
+    }
+
+    @Test
+    public void testCreateAllReportsOutcomePerEntry() {
+        long bookerId = booker.getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item ownItem = Item.builder().id(2L).name("own").available(true).ownerId(bookerId).build();
+        Item unavailable = Item.builder().id(3L).name("off").available(false).ownerId(user.getId()).build();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(item.getId(), 2L, 3L, 4L)))
+                .thenReturn(List.of(item, ownItem, unavailable));
+        when(intervalIndex.findOverlap(eq(item.getId()), any(), any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            List<Booking> inserted = invocation.getArgument(0);
+            for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(bookingRepository).insertAll(anyList());
+
+        List<BookingCreationResultDto> results = bookingService.createAll(List.of(
+                entry(item.getId(), start, start.plusHours(2)),
+                entry(item.getId(), start.plusHours(1), start.plusHours(3)),
+                entry(item.getId(), start.plusHours(2), start.plusHours(1)),
+                entry(2L, start, start.plusHours(1)),
+                entry(3L, start, start.plusHours(1)),
+                entry(4L, start, start.plusHours(1)),
+                entry(item.getId(), start.minusHours(12), start.minusHours(11))), bookerId);
+
+        assertEquals(List.of(BookingCreationOutcome.CREATED, BookingCreationOutcome.OVERLAP,
+                        BookingCreationOutcome.INVALID_TIME, BookingCreationOutcome.OWN_ITEM,
+                        BookingCreationOutcome.NOT_AVAILABLE, BookingCreationOutcome.ITEM_NOT_FOUND,
+                        BookingCreationOutcome.CREATED),
+                results.stream().map(BookingCreationResultDto::getOutcome).collect(Collectors.toList()));
+        assertEquals(100L, results.get(0).getBooking().getId());
+        assertEquals(101L, results.get(6).getBooking().getId());
+        assertNull(results.get(1).getBooking());
+        verify(itemLocks).lockAllUntilCompletion(Set.of(item.getId(), 2L, 3L));
+        verify(intervalIndex).add(item.getId(), 100L, start, start.plusHours(2));
+        verify(intervalIndex).add(item.getId(), 101L, start.minusHours(12), start.minusHours(11));
+        verify(bookingSummaries).onCreated(argThat(created -> created.getId() == 101L));
+        verifyNoMoreInteractions(bookingSummaries);
+    }
+
+    @Test
+    public void testCreateAllUnknownBooker() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(List.of(entry(item.getId(), null, null)), 99L));
+        verify(bookingRepository, never()).insertAll(any());
+    }
+
+    @Test
+    public void testCreateGroupBooksAllItemsAfterLockingThem() {
+        long bookerId = booker.getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item tripod = Item.builder().id(5L).name("tripod").available(true).ownerId(user.getId()).build();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(item.getId(), tripod.getId()))).thenReturn(List.of(tripod, item));
+        when(intervalIndex.findOverlap(anyLong(), eq(start), eq(start.plusHours(4)))).thenReturn(Optional.empty());
+
+        List<BookingDto> result = bookingService.createGroup(BookingGroupDto.builder()
+                .itemIds(List.of(tripod.getId(), item.getId(), tripod.getId()))
+                .start(start).end(start.plusHours(4)).build(), bookerId);
+
+        assertEquals(List.of(item.getId(), tripod.getId()),
+                result.stream().map(dto -> dto.getItem().getId()).collect(Collectors.toList()));
+        InOrder inOrder = inOrder(itemLocks, intervalIndex, bookingRepository);
+        inOrder.verify(itemLocks).lockAllUntilCompletion(Set.of(item.getId(), tripod.getId()));
+        inOrder.verify(intervalIndex, times(2)).findOverlap(anyLong(), any(), any());
+        inOrder.verify(bookingRepository).insertAll(argThat(bookings -> bookings.size() == 2));
+        verify(bookingSummaries, times(2)).onCreated(any());
+    }
+
+    @Test
+    public void testCreateGroupFailsAsWholeOnOverlap() {
+        long bookerId = booker.getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Item tripod = Item.builder().id(5L).name("tripod").available(true).ownerId(user.getId()).build();
+        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(item.getId(), tripod.getId()))).thenReturn(List.of(item, tripod));
+        when(intervalIndex.findOverlap(item.getId(), start, start.plusHours(4))).thenReturn(Optional.empty());
+        when(intervalIndex.findOverlap(tripod.getId(), start, start.plusHours(4))).thenReturn(Optional.of(9L));
+
+        assertThrows(NotAvailableException.class, () -> bookingService.createGroup(BookingGroupDto.builder()
+                .itemIds(List.of(item.getId(), tripod.getId())).start(start).end(start.plusHours(4)).build(), bookerId));
+        verify(bookingRepository, never()).insertAll(any());
+        verify(intervalIndex, never()).add(anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    public void testCreateGroupUnknownItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(item.getId(), 42L))).thenReturn(List.of(item));
+
+        assertThrows(NotFoundException.class, () -> bookingService.createGroup(BookingGroupDto.builder()
+                .itemIds(List.of(item.getId(), 42L)).start(start).end(start.plusHours(1)).build(), booker.getId()));
+        verifyNoInteractions(itemLocks);
+    }
+
+    private static BookingDto entry(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+
+    private static BookingTarget target(Item item, User booker) {
+        return new BookingTarget(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwnerId(), null, booker.getId(), booker.getName(), booker.getEmail());
     }
-}
\ No newline at end of file
+}
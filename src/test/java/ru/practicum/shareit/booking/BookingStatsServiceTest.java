@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserExistenceService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingStatsServiceTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserExistenceService userExistence;
+    @Mock
+    private BookingStats stats;
+
+    private BookingStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new BookingStatsService(bookingRepository, userExistence, 2);
+    }
+
+    @Test
+    void findByOwnerServesRepeatedReadsFromCacheUntilInvalidated() {
+        when(stats.getTotal()).thenReturn(3L);
+        when(stats.getWaitingCount()).thenReturn(1L);
+        when(bookingRepository.countByOwnerPerState(eq(1L), any())).thenReturn(stats);
+
+        assertEquals(3L, statsService.findByOwner(1L).getAll());
+        assertEquals(1L, statsService.findByOwner(1L).getWaiting());
+        verify(bookingRepository, times(1)).countByOwnerPerState(eq(1L), any());
+
+        statsService.invalidate(1L);
+        statsService.findByOwner(1L);
+        verify(bookingRepository, times(2)).countByOwnerPerState(eq(1L), any());
+    }
+
+    @Test
+    void loadRacingInvalidationIsCachedOnlyIfAnotherOwnerWasInvalidated() {
+        when(bookingRepository.countByOwnerPerState(eq(1L), any())).thenAnswer(invocation -> {
+            statsService.invalidate(2L);
+            return stats;
+        });
+        when(bookingRepository.countByOwnerPerState(eq(3L), any())).thenAnswer(invocation -> {
+            statsService.invalidate(3L);
+            return stats;
+        });
+
+        statsService.findByOwner(1L);
+        statsService.findByOwner(1L);
+        statsService.findByOwner(3L);
+        statsService.findByOwner(3L);
+
+        verify(bookingRepository, times(1)).countByOwnerPerState(eq(1L), any());
+        verify(bookingRepository, times(2)).countByOwnerPerState(eq(3L), any());
+    }
+
+    @Test
+    void findByOwnerReloadsOnceNextBookingStartHasPassed() {
+        when(stats.getNextStart()).thenReturn(LocalDateTime.now().minusSeconds(1));
+        when(bookingRepository.countByOwnerPerState(eq(1L), any())).thenReturn(stats);
+
+        statsService.findByOwner(1L);
+        statsService.findByOwner(1L);
+
+        verify(bookingRepository, times(2)).countByOwnerPerState(eq(1L), any());
+    }
+
+    @Test
+    void findByOwnerEvictsLeastRecentlyUsedOwner() {
+        when(bookingRepository.countByOwnerPerState(any(), any())).thenReturn(stats);
+
+        statsService.findByOwner(1L);
+        statsService.findByOwner(2L);
+        statsService.findByOwner(1L);
+        statsService.findByOwner(3L);
+        statsService.findByOwner(1L);
+        statsService.findByOwner(2L);
+
+        verify(bookingRepository, times(1)).countByOwnerPerState(eq(1L), any());
+        verify(bookingRepository, times(2)).countByOwnerPerState(eq(2L), any());
+    }
+
+    @Test
+    void findByOwnerThrowsForUnknownUser() {
+        doThrow(new NotFoundException("User with ID = 9 not found.")).when(userExistence).checkExists(9L);
+
+        assertThrows(NotFoundException.class, () -> statsService.findByOwner(9L));
+        verifyNoInteractions(bookingRepository);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.lock.StripedLock;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceTest {
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private StripedLock itemLocks;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ItemBookingSummaryService summaryService;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new ItemBookingSummaryService(summaryRepository, bookingRepository, itemLocks,
+                new TransactionTemplate(transactionManager));
+        item = Item.builder().id(1L).build();
+        booker = User.builder().id(2L).build();
+    }
+
+    @Test
+    void onCreatedOffersFutureBookingAsNext() {
+        Booking booking = booking(10L, LocalDateTime.now().plusDays(1));
+
+        summaryService.onCreated(booking);
+
+        verify(summaryRepository).updateNextIfEarlier(item.getId(), booking.getId(), booker.getId(),
+                booking.getStart(), booking.getEnd());
+        verify(summaryRepository, never()).findById(any());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void onCreatedOffersStartedBookingAsLast() {
+        Booking booking = booking(10L, LocalDateTime.now().minusHours(1));
+
+        summaryService.onCreated(booking);
+
+        verify(summaryRepository).updateLastIfLater(item.getId(), booking.getId(), booker.getId(),
+                booking.getStart(), booking.getEnd());
+        verify(summaryRepository, never()).updateNextIfEarlier(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findRebuildsMissingSummary() {
+        Booking next = booking(10L, LocalDateTime.now().plusDays(1));
+        when(summaryRepository.findById(item.getId())).thenReturn(Optional.empty());
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(next));
+
+        assertEquals(next.getId(), summaryService.find(item.getId()).getNextBookingId());
+    }
+
+    @Test
+    void onRejectedRebuildsOnlyReferencedSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setNext(booking(10L, now.plusDays(1)));
+        Booking following = booking(11L, now.plusDays(2));
+        when(summaryRepository.findById(item.getId())).thenReturn(Optional.of(summary));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(following));
+
+        summaryService.onRejected(item.getId(), 99L);
+        verify(summaryRepository, never()).save(any());
+
+        summaryService.onRejected(item.getId(), 10L);
+        assertEquals(following.getId(), captureSaved().getNextBookingId());
+    }
+
+    @Test
+    void findRebuildsSummaryWhoseNextBookingHasStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        Booking started = booking(10L, now.minusMinutes(1));
+        summary.setNext(started);
+        when(summaryRepository.findById(item.getId())).thenReturn(Optional.of(summary));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(started));
+
+        ItemBookingSummary found = summaryService.find(item.getId());
+
+        assertEquals(started.getId(), found.getLastBookingId());
+        assertNull(found.getNextBookingId());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void findReturnsFreshSummaryWithoutQueryingBookings() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setNext(booking(10L, LocalDateTime.now().plusDays(1)));
+        when(summaryRepository.findById(item.getId())).thenReturn(Optional.of(summary));
+
+        assertSame(summary, summaryService.find(item.getId()));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void rollForwardRebuildsStaleSummariesUnderItemLock() {
+        Booking started = booking(10L, LocalDateTime.now().minusMinutes(1));
+        when(summaryRepository.findStaleItemIds(any())).thenReturn(List.of(item.getId()));
+        when(summaryRepository.existsById(item.getId())).thenReturn(true);
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(started));
+
+        summaryService.rollForward();
+
+        verify(itemLocks).lockUntilCompletion(item.getId());
+        assertEquals(started.getId(), captureSaved().getLastBookingId());
+    }
+
+    private Booking booking(Long id, LocalDateTime start) {
+        return Booking.builder().id(id).item(item).booker(booker).start(start).end(start.plusHours(1))
+                .status(BookingStatus.WAITING).build();
+    }
+
+    private ItemBookingSummary captureSaved() {
+        ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+        verify(summaryRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -7,12 +7,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.availability.AvailabilitySlotDto;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.availability.ItemAvailabilityDto;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -160,4 +166,57 @@ public class ItemControllerMockMVCTest {
 
         verify(itemService).addComment(eq(itemId), eq(ownerId), any(CommentDto.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findCommentsPassesCursorAndSize() throws Exception {
+        CommentDto commentDto = CommentDto.builder().id(3L).text("This is a comment").authorName("user").build();
+        when(itemService.findComments(1L, "abc", 5)).thenReturn(new CommentPageDto(List.of(commentDto), "next"));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].authorName").value("user"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void findAvailabilityParsesGranularity() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.findAvailability(1L, from, to, Granularity.DAY)).thenReturn(new ItemAvailabilityDto(1L,
+                Granularity.DAY, List.of(new AvailabilitySlotDto(from, to, true))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .param("granularity", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.slots[0].free").value(true));
+    }
+
+    @Test
+    void findAvailabilityRejectsUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .param("granularity", "week"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchWithWindowUsesAvailabilityAwareSearch() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        ItemDto item = ItemDto.builder().id(3L).name("drill").build();
+        when(itemService.searchFreeBetween("drill", start, start.plusHours(2), 0, 10)).thenReturn(List.of(item));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-01T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3L));
+        verify(itemService, never()).search(anyString(), anyInt(), anyInt());
+    }
+}
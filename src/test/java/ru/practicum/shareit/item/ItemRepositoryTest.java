@@ -7,8 +7,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -20,16 +29,19 @@ class ItemRepositoryTest {
     private TestEntityManager entityManager;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
     @InjectMocks
     private ItemService itemService;
 
     @Test
     public void testFindAllBookingsByOwner() {
+        User owner = persistOwner();
         Item item = new Item();
         item.setName("item");
         item.setDescription("item");
         item.setAvailable(true);
-        item.setOwnerId(1L);
+        item.setOwnerId(owner.getId());
         entityManager.persist(item);
         entityManager.flush();
 
@@ -42,4 +54,96 @@ class ItemRepositoryTest {
         assertNotNull(newItem);
         assertEquals(newItem.get(0).getName(), text);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSearchSkipsUnavailableItemsMatchedByName() {
+        User owner = persistOwner();
+        Item available = new Item();
+        available.setName("drill");
+        available.setDescription("tool");
+        available.setAvailable(true);
+        available.setOwnerId(owner.getId());
+        entityManager.persist(available);
+
+        Item unavailable = new Item();
+        unavailable.setName("drill");
+        unavailable.setDescription("broken");
+        unavailable.setAvailable(false);
+        unavailable.setOwnerId(owner.getId());
+        entityManager.persist(unavailable);
+        entityManager.flush();
+
+        List<Item> found = itemRepository.searchAvailableItems("DRILL", PageRequest.of(0, 10));
+
+        assertEquals(1, found.size());
+        assertEquals(available.getId(), found.get(0).getId());
+    }
+
+    @Test
+    public void testSearchFreeBetweenSkipsItemsBookedInWindow() {
+        User owner = persistOwner();
+        Item free = persistItem("drill free", owner);
+        Item booked = persistItem("drill booked", owner);
+        Item rejected = persistItem("drill rejected", owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        persistBooking(booked, owner, start.minusHours(1), start.plusHours(1), BookingStatus.WAITING);
+        persistBooking(rejected, owner, start, start.plusHours(1), BookingStatus.REJECTED);
+        persistBooking(free, owner, start.minusHours(2), start, BookingStatus.APPROVED);
+        entityManager.flush();
+
+        List<Item> found = itemRepository.searchAvailableItemsFreeBetween("DRILL", start, start.plusHours(2),
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(free.getId(), rejected.getId()),
+                found.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFindCommentsBeforeCursorOrdersByCreatedThenId() {
+        User owner = persistOwner();
+        Item item = persistItem("drill", owner);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Comment oldest = persistComment(item, owner, now.minusDays(2));
+        Comment first = persistComment(item, owner, now);
+        Comment second = persistComment(item, owner, now);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentView> page = commentRepository.findByItemIdBeforeCursor(item.getId(),
+                now.plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 2));
+        assertEquals(List.of(second.getId(), first.getId()),
+                page.stream().map(CommentView::getId).collect(Collectors.toList()));
+        assertEquals("owner", page.get(0).getAuthorName());
+
+        List<CommentView> next = commentRepository.findByItemIdBeforeCursor(item.getId(),
+                now, first.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(oldest.getId()), next.stream().map(CommentView::getId).collect(Collectors.toList()));
+    }
+
+    private Comment persistComment(Item item, User author, LocalDateTime created) {
+        return entityManager.persist(Comment.builder().text("text").item(item).author(author).created(created)
+                .build());
+    }
+
+    private Item persistItem(String name, User owner) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("tool");
+        item.setAvailable(true);
+        item.setOwnerId(owner.getId());
+        return entityManager.persist(item);
+    }
+
+    private void persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+        entityManager.persist(Booking.builder().item(item).booker(booker).start(start).end(end).status(status)
+                .build());
+    }
+
+    private User persistOwner() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@example.com");
+        return entityManager.persist(owner);
+    }
+}
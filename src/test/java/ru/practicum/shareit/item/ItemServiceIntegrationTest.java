@@ -7,12 +7,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.ItemCommentSummary;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryService;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,6 +31,12 @@ public class ItemServiceIntegrationTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemCommentSummaryService commentSummaries;
+
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private EntityManager entityManager;
 
@@ -105,4 +117,58 @@ public class ItemServiceIntegrationTest {
             assertThat(itemDto.getLastBooking()).isNull();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCommentSummaryKeepsNewestCommentsInRing() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+        entityManager.persist(owner);
+        User guest = new User();
+        guest.setName("guest");
+        guest.setEmail("guest@mail.ru");
+        entityManager.persist(guest);
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item").description("Item").available(true).build());
+        Item managed = entityManager.find(Item.class, item.getId());
+
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < 12; i++) {
+            Comment comment = new Comment();
+            comment.setCreated(start.plusMinutes(i));
+            comment.setAuthor(i == 11 ? guest : owner);
+            comment.setItem(managed);
+            comment.setText("Comment " + i);
+            entityManager.persist(comment);
+            commentSummaries.onCommentAdded(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(entityManager.find(ItemCommentSummary.class, item.getId()).getCommentCount()).isEqualTo(12);
+        List<CommentDto> recent = commentSummaries.findRecent(List.of(item.getId())).get(item.getId());
+        assertThat(recent.stream().map(CommentDto::getText).collect(Collectors.toList()))
+                .containsExactly("Comment 11", "Comment 10", "Comment 9", "Comment 8", "Comment 7", "Comment 6",
+                        "Comment 5", "Comment 4", "Comment 3", "Comment 2");
+        assertThat(recent.get(0).getAuthorName()).isEqualTo("guest");
+
+        userService.save(UserDto.builder().name("renamed guest").build(), guest.getId());
+        entityManager.flush();
+        entityManager.clear();
+        recent = commentSummaries.findRecent(List.of(item.getId())).get(item.getId());
+        assertThat(recent.get(0).getAuthorName()).isEqualTo("renamed guest");
+        assertThat(recent.get(1).getAuthorName()).isEqualTo("owner");
+
+        userService.delete(guest.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemCommentSummary repaired = entityManager.find(ItemCommentSummary.class, item.getId());
+        assertThat(repaired.getCommentCount()).isEqualTo(11);
+        assertThat(repaired.isStale()).isFalse();
+        recent = commentSummaries.findRecent(List.of(item.getId())).get(item.getId());
+        assertThat(recent).hasSize(10);
+        assertThat(recent.get(0).getText()).isEqualTo("Comment 10");
+        assertThat(recent.get(9).getText()).isEqualTo("Comment 1");
+    }
+}
@@ -7,16 +7,30 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatsService;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.TimeDataException;
+import ru.practicum.shareit.item.availability.AvailabilitySlotDto;
+import ru.practicum.shareit.item.availability.Granularity;
+import ru.practicum.shareit.item.availability.ItemAvailabilityDto;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentEligibilityCache;
+import ru.practicum.shareit.item.comment.CommentPageDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentView;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryService;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchService;
 import ru.practicum.shareit.request.ItemRequestDto;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestService;
@@ -25,10 +39,12 @@ import ru.practicum.shareit.user.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,11 +56,14 @@ class ItemServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private UserService userService;
 
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceService userExistence;
 
     @Mock
     private CommentRepository commentRepository;
@@ -55,6 +74,27 @@ class ItemServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchIndex searchIndex;
+
+    @Mock
+    private ItemSearchService searchService;
+
+    @Mock
+    private ItemBookingSummaryService bookingSummaries;
+
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private BookingStatsService bookingStats;
+
+    @Mock
+    private ItemCommentSummaryService commentSummaries;
+
+    @Mock
+    private CommentEligibilityCache commentEligibility;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -99,7 +139,6 @@ class ItemServiceTest {
         itemDto.setRequestId(1L);
         itemDto.setOwnerId(userId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         when(requestService.findById(userId, itemDto.getRequestId())).thenReturn(itemRequestDto);
 
@@ -109,8 +148,11 @@ class ItemServiceTest {
         assertEquals(itemDto.getName(), createdItemDto.getName());
         assertEquals(itemDto.getDescription(), createdItemDto.getDescription());
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistence, times(1)).checkExists(userId);
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(searchIndex, times(1)).put(item);
+        verify(bookingSummaries, times(1)).onItemCreated(item.getId());
+        verify(commentSummaries, times(1)).onItemCreated(item.getId());
     }
 
     @Test
@@ -121,11 +163,11 @@ class ItemServiceTest {
         newItemDto.setDescription("New Description");
         newItemDto.setOwnerId(userId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("User not found")).when(userExistence).checkExists(userId);
 
         assertThrows(NotFoundException.class, () -> itemService.create(userId, newItemDto));
 
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistence, times(1)).checkExists(userId);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
@@ -139,7 +181,6 @@ class ItemServiceTest {
         updatedItemDto.setOwnerId(userId);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userService.findUserById(userId)).thenReturn(userDto);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto savedItemDto = itemService.save(updatedItemDto, itemId, userId);
@@ -149,7 +190,7 @@ class ItemServiceTest {
         assertEquals(updatedItemDto.getDescription(), savedItemDto.getDescription());
 
         verify(itemRepository, times(1)).findById(itemId);
-        verify(userService, times(1)).findUserById(userId);
+        verify(userExistence, times(1)).checkExists(userId);
         verify(itemRepository, times(1)).save(any(Item.class));
     }
 
@@ -167,7 +208,7 @@ class ItemServiceTest {
         assertThrows(NotFoundException.class, () -> itemService.save(updatedItemDto, itemId, userId));
 
         verify(itemRepository, times(1)).findById(itemId);
-        verify(userService, never()).findUserById(userId);
+        verify(userExistence, never()).checkExists(userId);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
@@ -181,12 +222,12 @@ class ItemServiceTest {
         updatedItemDto.setOwnerId(userId);
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userService.findUserById(userId)).thenThrow(new NotFoundException("User not found"));
+        doThrow(new NotFoundException("User not found")).when(userExistence).checkExists(userId);
 
         assertThrows(NotFoundException.class, () -> itemService.save(updatedItemDto, itemId, userId));
 
         verify(itemRepository, times(1)).findById(itemId);
-        verify(userService, times(1)).findUserById(userId);
+        verify(userExistence, times(1)).checkExists(userId);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
@@ -201,11 +242,12 @@ class ItemServiceTest {
         comment.setAuthor(user);
         comment.setCreated(LocalDateTime.now());
 
-        List<Comment> comments = new ArrayList<>();
-        comments.add(comment);
+        List<CommentView> comments = List.of(commentView(comment));
 
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(itemId)).thenReturn(comments);
+        when(commentRepository.findByItemIdBeforeCursor(eq(itemId), any(), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 10))))
+                .thenReturn(comments);
+        when(bookingSummaries.find(itemId)).thenReturn(new ItemBookingSummary(itemId));
 
         ItemDto foundItemDto = itemService.findItemById(itemId, userId);
 
@@ -216,7 +258,8 @@ class ItemServiceTest {
         assertEquals(comments.size(), foundItemDto.getComments().size());
 
         verify(itemRepository, times(1)).findById(itemId);
-        verify(commentRepository, times(1)).findAllByItemId(itemId);
+        assertEquals(user.getName(), foundItemDto.getComments().get(0).getAuthorName());
+        verify(commentRepository, times(1)).findByItemIdBeforeCursor(eq(itemId), any(), any(), any());
     }
 
     @Test
@@ -229,7 +272,7 @@ class ItemServiceTest {
         assertThrows(NotFoundException.class, () -> itemService.findItemById(itemId, userId));
 
         verify(itemRepository, times(1)).findById(itemId);
-        verify(commentRepository, never()).findAllByItemId(anyLong());
+        verify(commentRepository, never()).findByItemIdBeforeCursor(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -241,8 +284,8 @@ class ItemServiceTest {
         itemList.add(item);
 
         when(itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size))).thenReturn(itemList);
-        when(commentRepository.findByItemIn(eq(itemList), any(Sort.class))).thenReturn(new ArrayList<>());
-        when(bookingRepository.findByItemIn(eq(itemList), any(Sort.class))).thenReturn(new ArrayList<>());
+        when(commentSummaries.findRecent(List.of(item.getId()))).thenReturn(Map.of(item.getId(), List.of()));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any())).thenReturn(new ArrayList<>());
 
         List<ItemDto> foundItemDtoList = itemService.findAllUsersItems(userId, from, size);
 
@@ -250,8 +293,10 @@ class ItemServiceTest {
         assertEquals(itemList.size(), foundItemDtoList.size());
 
         verify(itemRepository, times(1)).findAllByOwnerId(userId, PageRequest.of(from / size, size));
-        verify(commentRepository, times(1)).findByItemIn(eq(itemList), any(Sort.class));
-        verify(bookingRepository, times(1)).findByItemIn(eq(itemList), any(Sort.class));
+        verify(commentSummaries, times(1)).findRecent(List.of(item.getId()));
+        verifyNoInteractions(commentRepository);
+        verify(bookingRepository, times(1)).findLastAndNextBookings(eq(List.of(item.getId())), any());
+        verify(bookingRepository, never()).findByItemIn(any(), any());
     }
 
     @Test
@@ -259,58 +304,103 @@ class ItemServiceTest {
         List<Item> itemList = new ArrayList<>();
         itemList.add(item);
 
-        when(commentRepository.findByItemIn(eq(itemList), any(Sort.class))).thenReturn(new ArrayList<>());
-        when(bookingRepository.findByItemIn(eq(itemList), any(Sort.class))).thenReturn(new ArrayList<>());
+        when(commentSummaries.findRecent(List.of(item.getId()))).thenReturn(Map.of(item.getId(), List.of()));
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(item.getId())), any())).thenReturn(new ArrayList<>());
 
         List<ItemDto> updatedItemDtoList = itemService.updateBookingsAndComments(itemList);
 
         assertNotNull(updatedItemDtoList);
         assertEquals(itemList.size(), updatedItemDtoList.size());
 
-        verify(commentRepository, times(1)).findByItemIn(eq(itemList), any(Sort.class));
-        verify(bookingRepository, times(1)).findByItemIn(eq(itemList), any(Sort.class));
+        verify(commentSummaries, times(1)).findRecent(List.of(item.getId()));
+        verifyNoInteractions(commentRepository);
+        verify(bookingRepository, times(1)).findLastAndNextBookings(eq(List.of(item.getId())), any());
+        verify(bookingRepository, never()).findByItemIn(any(), any());
     }
 
     @Test
     void updateBookingsTest() {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = new ArrayList<>();
 
         Booking lastBooking = new Booking();
         lastBooking.setId(1L);
-        lastBooking.setStatus(BookingStatus.REJECTED);
         lastBooking.setStart(now.minusDays(1));
+        lastBooking.setEnd(now.minusHours(1));
         lastBooking.setBooker(user);
 
         Booking nextBooking = new Booking();
         nextBooking.setId(2L);
-        nextBooking.setStatus(BookingStatus.REJECTED);
         nextBooking.setStart(now.plusDays(1));
+        nextBooking.setEnd(now.plusDays(2));
         nextBooking.setBooker(user);
 
-        bookings.add(lastBooking);
-        bookings.add(nextBooking);
-        itemDto.setLastBooking(BookingMapper.toItemBookingDto(lastBooking));
-        itemDto.setNextBooking(BookingMapper.toItemBookingDto(nextBooking));
+        ItemBookingSummary summary = new ItemBookingSummary(itemDto.getId());
+        summary.setLast(lastBooking);
+        summary.setNext(nextBooking);
 
-        when(bookingRepository.findBookingsItem(itemDto.getId())).thenReturn(bookings);
+        when(bookingSummaries.find(itemDto.getId())).thenReturn(summary);
 
         ItemDto updatedItemDto = itemService.updateBookings(itemDto);
 
         assertNotNull(updatedItemDto);
         assertEquals(lastBooking.getId(), updatedItemDto.getLastBooking().getId());
+        assertEquals(user.getId(), updatedItemDto.getLastBooking().getBookerId());
         assertEquals(nextBooking.getId(), updatedItemDto.getNextBooking().getId());
 
-        verify(bookingRepository, times(1)).findBookingsItem(itemDto.getId());
+        verify(bookingSummaries, times(1)).find(itemDto.getId());
+        verify(bookingRepository, never()).findBookingsItem(any());
     }
 
     @Test
     void deleteByIdTest() {
         Long itemId = 1L;
 
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(Item.builder().id(itemId).ownerId(7L).build()));
+
         itemService.deleteById(itemId);
 
+        verify(bookingStats, times(1)).invalidate(7L);
         verify(itemRepository, times(1)).deleteById(itemId);
+        verify(searchIndex, times(1)).remove(itemId);
+        verify(availabilityIndex, times(1)).invalidate(itemId);
+    }
+
+    @Test
+    void searchFreeBetweenRejectsEmptyWindowTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        assertThrows(TimeDataException.class, () -> itemService.searchFreeBetween("drill", start, start, 0, 10));
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void findAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        List<AvailabilitySlotDto> slots = List.of(new AvailabilitySlotDto(from, from.plusDays(1), true));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(availabilityIndex.calendar(1L, from, from.plusDays(1), Granularity.DAY)).thenReturn(slots);
+
+        ItemAvailabilityDto availability = itemService.findAvailability(1L, from, from.plusDays(1), Granularity.DAY);
+
+        assertEquals(Granularity.DAY, availability.getGranularity());
+        assertEquals(slots, availability.getSlots());
+    }
+
+    @Test
+    void findAvailabilityRejectsTooLongWindowTest() {
+        LocalDateTime from = LocalDateTime.now();
+        assertThrows(TimeDataException.class,
+                () -> itemService.findAvailability(1L, from, from.plusYears(2), Granularity.HOUR));
+        assertThrows(TimeDataException.class,
+                () -> itemService.findAvailability(1L, from, from, Granularity.HOUR));
+        verifyNoInteractions(availabilityIndex);
+    }
+
+    @Test
+    void findAvailabilityOfUnknownItemTest() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFoundException.class,
+                () -> itemService.findAvailability(1L, from, from.plusDays(1), Granularity.HOUR));
     }
 
     @Test
@@ -318,17 +408,18 @@ class ItemServiceTest {
         String text = "item";
         Integer from = 0;
         Integer size = 10;
-        List<Item> itemList = new ArrayList<>();
-        itemList.add(item);
+        List<ItemDto> itemList = new ArrayList<>();
+        itemList.add(itemDto);
 
-        when(itemRepository.searchAvailableItems(text, PageRequest.of(from / size, size))).thenReturn(itemList);
+        when(searchService.search(text, PageRequest.of(from / size, size))).thenReturn(itemList);
 
         List<ItemDto> foundItemDtoList = itemService.search(text, from, size);
 
         assertNotNull(foundItemDtoList);
         assertEquals(itemList.size(), foundItemDtoList.size());
 
-        verify(itemRepository, times(1)).searchAvailableItems(text, PageRequest.of(from / size, size));
+        verify(searchService, times(1)).search(text, PageRequest.of(from / size, size));
+        verify(itemRepository, never()).searchAvailableItems(any(), any());
     }
 
     @Test
@@ -366,8 +457,8 @@ class ItemServiceTest {
         item.setLastBooking(BookingMapper.toItemBookingDto(bookings.get(0)));
         item.setNextBooking(BookingMapper.toItemBookingDto(bookings.get(1)));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(
-                eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(bookings);
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
+                eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(true);
         when(userService.findUserById(userId)).thenReturn(userDto);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
@@ -376,10 +467,39 @@ class ItemServiceTest {
         assertNotNull(addedCommentDto);
         verify(itemRepository, times(1)).findById(itemId);
         verify(userService, times(1)).findUserById(userId);
-        verify(bookingRepository, times(1)).findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(
+        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBefore(
                 eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class)
         );
+        verify(commentEligibility, times(1)).markEligible(userId, itemId);
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(commentSummaries, times(1)).onCommentAdded(comment);
+    }
+
+    @Test
+    void addCommentAcceptsArchivedBooking() {
+        Comment comment = Comment.builder().id(1L).text("Text").item(item).author(user).build();
+        CommentDto commentDto = CommentDto.builder().text("Text").build();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(userService.findUserById(user.getId())).thenReturn(userDto);
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(eq(item.getId()), eq(user.getId()),
+                eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(false);
+        when(archivedBookingRepository.existsByItemIdAndBookerIdAndStatus(item.getId(), user.getId(),
+                BookingStatus.APPROVED)).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        assertNotNull(itemService.addComment(item.getId(), user.getId(), commentDto));
+    }
+
+    @Test
+    void addCommentSkipsBookingQueriesForCachedEligibility() {
+        Comment comment = Comment.builder().id(1L).text("Text").item(item).author(user).build();
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(userService.findUserById(user.getId())).thenReturn(userDto);
+        when(commentEligibility.isEligible(eq(user.getId()), eq(item.getId()), any())).thenReturn(true);
+        when(commentRepository.save(any(Comment.class))).thenReturn(comment);
+
+        assertNotNull(itemService.addComment(item.getId(), user.getId(), CommentDto.builder().text("Text").build()));
+        verifyNoInteractions(bookingRepository, archivedBookingRepository);
     }
 
     @Test
@@ -395,7 +515,7 @@ class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(itemId);
         verify(userService, never()).findUserById(userId);
-        verify(bookingRepository, never()).findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(anyLong(), anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
@@ -416,7 +536,7 @@ class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(itemId);
         verify(userService, times(1)).findUserById(userId);
-        verify(bookingRepository, never()).findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(anyLong(), anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
+        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(BookingStatus.class), any(LocalDateTime.class));
         verify(commentRepository, never()).save(any(Comment.class));
     }
 
@@ -430,30 +550,67 @@ class ItemServiceTest {
         Item item = new Item();
         item.setId(itemId);
 
-        User user = new User();
-        user.setId(userId);
-
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = new ArrayList<>();
-        Booking booking = new Booking();
-        booking.setId(1L);
-        booking.setItem(item);
-        booking.setBooker(user);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setStart(now.plusHours(1));
-        booking.setEnd(now.plusHours(2));
-        bookings.add(booking);
-
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
         when(userService.findUserById(userId)).thenReturn(userDto);
-        when(bookingRepository.findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(bookings);
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(false);
 
         assertThrows(NotAvailableException.class, () -> itemService.addComment(itemId, userId, commentDto));
 
         verify(itemRepository, times(1)).findById(itemId);
         verify(userService, times(1)).findUserById(userId);
-        verify(bookingRepository, times(1)).findByItemIdAndBookerIdAndStatusIsAndEndIsBefore(eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBefore(eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class));
+        verify(commentEligibility, never()).markEligible(anyLong(), anyLong());
         verify(commentRepository, never()).save(any(Comment.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findCommentsReturnsCursorForFullPage() {
+        Comment comment = Comment.builder().id(4L).text("Comment").author(user)
+                .created(LocalDateTime.of(2023, 5, 1, 10, 0)).build();
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findByItemIdBeforeCursor(eq(1L), any(), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(commentView(comment)));
+        when(commentRepository.findByItemIdBeforeCursor(1L, comment.getCreated(), 4L, PageRequest.of(0, 1)))
+                .thenReturn(List.of());
+
+        CommentPageDto page = itemService.findComments(1L, null, 1);
+
+        assertEquals(4L, page.getComments().get(0).getId());
+        assertNotNull(page.getNextCursor());
+        CommentPageDto last = itemService.findComments(1L, page.getNextCursor(), 1);
+        assertTrue(last.getComments().isEmpty());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void findCommentsOfUnknownItemThrowsNotFound() {
+        when(itemRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.findComments(100L, null, 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    private static CommentView commentView(Comment comment) {
+        return new CommentView() {
+            @Override
+            public Long getId() {
+                return comment.getId();
+            }
+
+            @Override
+            public String getText() {
+                return comment.getText();
+            }
+
+            @Override
+            public String getAuthorName() {
+                return comment.getAuthor().getName();
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return comment.getCreated();
+            }
+        };
+    }
+}
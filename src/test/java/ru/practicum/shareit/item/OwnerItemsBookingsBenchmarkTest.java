@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = "logging.level.org.hibernate=WARN")
+class OwnerItemsBookingsBenchmarkTest {
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS_PER_ITEM = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void compareLastAndNextQueryWithLoadingAllBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = seed(now);
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        long begin = System.nanoTime();
+        List<Booking> all = bookingRepository.findByItemIn(items, Sort.by("start"));
+        double loadAllMillis = (System.nanoTime() - begin) / 1e6;
+        entityManager.clear();
+
+        List<Booking> lastAndNext = bookingRepository.findLastAndNextBookings(itemIds, now);
+        begin = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            lastAndNext = bookingRepository.findLastAndNextBookings(itemIds, now);
+        }
+        double windowMillis = (System.nanoTime() - begin) / 1e6 / RUNS;
+
+        assertEquals(ITEMS * BOOKINGS_PER_ITEM, all.size());
+        assertEquals(ITEMS * 2, lastAndNext.size());
+        log.info("Last/next bookings for {} items x {} bookings: loading all {} ms ({} rows), "
+                        + "window query {} ms ({} rows)", ITEMS, BOOKINGS_PER_ITEM, String.format("%.1f", loadAllMillis),
+                all.size(), String.format("%.1f", windowMillis), lastAndNext.size());
+    }
+
+    private List<Item> seed(LocalDateTime now) {
+        User user = new User();
+        user.setName("owner");
+        user.setEmail("owner@example.com");
+        entityManager.persist(user);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("item " + i);
+            item.setDescription("item");
+            item.setAvailable(true);
+            item.setOwnerId(user.getId());
+            items.add(entityManager.persist(item));
+        }
+        entityManager.flush();
+        for (Item item : items) {
+            entityManager.getEntityManager().createNativeQuery("INSERT INTO bookings "
+                            + "(start_date, end_date, item_id, booker_id, status) "
+                            + "SELECT DATEADD('HOUR', x - CAST(:half AS INT), CAST(:now AS TIMESTAMP)), "
+                            + "DATEADD('HOUR', x - CAST(:half AS INT) + 1, CAST(:now AS TIMESTAMP)), "
+                            + ":itemId, :bookerId, 'APPROVED' FROM SYSTEM_RANGE(1, CAST(:count AS INT))")
+                    .setParameter("half", BOOKINGS_PER_ITEM / 2)
+                    .setParameter("now", now)
+                    .setParameter("itemId", item.getId())
+                    .setParameter("bookerId", user.getId())
+                    .setParameter("count", BOOKINGS_PER_ITEM)
+                    .executeUpdate();
+        }
+        entityManager.clear();
+        return items;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@Tag("benchmark")
+class ItemAvailabilityBenchmarkTest {
+    private static final int BOOKINGS = 1_500;
+    private static final int RENDERS = 20_000;
+
+    @Test
+    void renderYearLongCalendars() {
+        LocalDateTime base = LocalDate.now().plusDays(1).atStartOfDay();
+        Random random = new Random(11);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusHours(i * 5L + random.nextInt(3));
+            bookings.add(Booking.builder().start(start).end(start.plusHours(1 + random.nextInt(2))).build());
+        }
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(bookings);
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository);
+
+        for (Granularity granularity : Granularity.values()) {
+            for (int i = 0; i < RENDERS / 10; i++) {
+                index.calendar(1L, base, base.plusDays(365), granularity);
+            }
+            long begin = System.nanoTime();
+            int slots = 0;
+            for (int i = 0; i < RENDERS; i++) {
+                slots = index.calendar(1L, base, base.plusDays(365), granularity).size();
+            }
+            double micros = (System.nanoTime() - begin) / 1e3 / RENDERS;
+            assertFalse(slots == 0);
+            log.info("Year-long {} calendar over {} bookings: {} runs in {} us", granularity, BOOKINGS, slots,
+                    String.format("%.1f", micros));
+        }
+    }
+}
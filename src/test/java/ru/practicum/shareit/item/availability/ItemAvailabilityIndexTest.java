@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemAvailabilityIndexTest {
+    private static final LocalDateTime DAY = LocalDate.now().plusDays(3).atStartOfDay();
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository);
+
+    @Test
+    void hourCalendarMergesFreeAndBusyRuns() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of(
+                booking(DAY.plusHours(2), DAY.plusHours(4)),
+                booking(DAY.plusHours(4).plusMinutes(30), DAY.plusHours(5).plusMinutes(10))));
+
+        List<AvailabilitySlotDto> slots = index.calendar(1L, DAY, DAY.plusHours(8), Granularity.HOUR);
+
+        assertSlots(slots, DAY, true, DAY.plusHours(2), false, DAY.plusHours(6), true, DAY.plusHours(8));
+    }
+
+    @Test
+    void dayIsBusyWhenAnyHourIsBooked() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of(
+                booking(DAY.plusDays(1).plusHours(23), DAY.plusDays(2).plusHours(1)),
+                booking(DAY.plusDays(4).plusHours(10), DAY.plusDays(4).plusHours(11))));
+
+        List<AvailabilitySlotDto> slots = index.calendar(1L, DAY, DAY.plusDays(6), Granularity.DAY);
+
+        assertSlots(slots, DAY, true, DAY.plusDays(1), false, DAY.plusDays(3), true, DAY.plusDays(4), false,
+                DAY.plusDays(5), true, DAY.plusDays(6));
+    }
+
+    @Test
+    void bookingsSpanningBlocksAreMarkedCompletely() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any()))
+                .thenReturn(List.of(booking(DAY.plusDays(10), DAY.plusDays(400))));
+
+        List<AvailabilitySlotDto> slots = index.calendar(1L, DAY, DAY.plusDays(366), Granularity.HOUR);
+
+        assertSlots(slots, DAY, true, DAY.plusDays(10), false, DAY.plusDays(366));
+    }
+
+    @Test
+    void pastSlotsAreBusy() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of());
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+
+        List<AvailabilitySlotDto> slots = index.calendar(1L, today.minusDays(2), today.plusDays(2), Granularity.DAY);
+
+        assertSlots(slots, today.minusDays(2), false, today, true, today.plusDays(2));
+    }
+
+    @Test
+    void addExtendsLoadedBitmapAndInvalidateReloads() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of());
+        assertTrue(index.calendar(1L, DAY, DAY.plusHours(4), Granularity.HOUR).get(0).isFree());
+
+        index.add(1L, DAY.plusHours(1), DAY.plusHours(2));
+        assertSlots(index.calendar(1L, DAY, DAY.plusHours(4), Granularity.HOUR),
+                DAY, true, DAY.plusHours(1), false, DAY.plusHours(2), true, DAY.plusHours(4));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+
+        index.invalidate(1L);
+        assertEquals(1, index.calendar(1L, DAY, DAY.plusHours(4), Granularity.HOUR).size());
+        verify(bookingRepository, times(2)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+    }
+
+    private static Booking booking(LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().start(start).end(end).build();
+    }
+
+    private static void assertSlots(List<AvailabilitySlotDto> slots, Object... expected) {
+        assertEquals(expected.length / 2, slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            AvailabilitySlotDto slot = slots.get(i);
+            assertEquals(expected[2 * i], slot.getStart());
+            assertEquals(expected[2 * i + 1], slot.isFree());
+            assertEquals(expected[2 * i + 2], slot.getEnd());
+        }
+    }
+}
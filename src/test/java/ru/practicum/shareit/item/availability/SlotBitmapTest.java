@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlotBitmapTest {
+    private static final long BLOCK = 4096;
+
+    @Test
+    void emptyBitmapHasNoSetSlots() {
+        SlotBitmap bitmap = new SlotBitmap();
+
+        assertEquals(Long.MAX_VALUE, bitmap.nextSetBit(0));
+        assertEquals(5, bitmap.nextClearBit(5));
+    }
+
+    @Test
+    void rangeAcrossBlockBoundaryIsSetInBothBlocks() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.set(BLOCK - 6, BLOCK + 4);
+
+        assertEquals(BLOCK - 6, bitmap.nextSetBit(0));
+        assertEquals(BLOCK - 1, bitmap.nextSetBit(BLOCK - 1));
+        assertEquals(BLOCK, bitmap.nextSetBit(BLOCK));
+        assertEquals(Long.MAX_VALUE, bitmap.nextSetBit(BLOCK + 4));
+        assertEquals(BLOCK + 4, bitmap.nextClearBit(BLOCK - 6));
+        assertEquals(BLOCK - 7, bitmap.nextClearBit(BLOCK - 7));
+    }
+
+    @Test
+    void nextClearBitSkipsFullBlocks() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.set(0, 2 * BLOCK + 8);
+
+        assertEquals(2 * BLOCK + 8, bitmap.nextClearBit(10));
+
+        bitmap.set(2 * BLOCK + 8, 3 * BLOCK);
+        assertEquals(3 * BLOCK, bitmap.nextClearBit(0));
+    }
+
+    @Test
+    void nextSetBitSkipsMissingBlocksAndWordBoundaries() {
+        SlotBitmap bitmap = new SlotBitmap();
+        bitmap.set(5 * BLOCK + 63, 5 * BLOCK + 65);
+
+        assertEquals(5 * BLOCK + 63, bitmap.nextSetBit(100));
+        assertEquals(5 * BLOCK + 64, bitmap.nextSetBit(5 * BLOCK + 64));
+        assertEquals(Long.MAX_VALUE, bitmap.nextSetBit(5 * BLOCK + 65));
+        assertEquals(5 * BLOCK + 65, bitmap.nextClearBit(5 * BLOCK + 63));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommentEligibilityCacheTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Test
+    void approvedBookingMakesBookerEligibleOnceItEnds() {
+        CommentEligibilityCache cache = new CommentEligibilityCache(10);
+
+        cache.onApproved(1L, 2L, NOW.plusDays(2));
+        cache.onApproved(1L, 2L, NOW.plusDays(1));
+
+        assertFalse(cache.isEligible(1L, 2L, NOW));
+        assertTrue(cache.isEligible(1L, 2L, NOW.plusDays(1).plusSeconds(1)));
+        assertFalse(cache.isEligible(2L, 1L, NOW.plusDays(3)));
+    }
+
+    @Test
+    void markedPairIsEligibleAndEldestPairIsEvicted() {
+        CommentEligibilityCache cache = new CommentEligibilityCache(1);
+
+        cache.markEligible(1L, 2L);
+        assertTrue(cache.isEligible(1L, 2L, NOW));
+
+        cache.markEligible(3L, 2L);
+        assertFalse(cache.isEligible(1L, 2L, NOW));
+        assertTrue(cache.isEligible(3L, 2L, NOW));
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    void loadIndexesExistingItems() {
+        when(itemRepository.findBatchAfterId(eq(0L), any())).thenReturn(List.of(
+                item(1L, "Дрель", "Ударная дрель", true, 1L),
+                item(2L, "Отвертка", "Аккумуляторная", true, 1L)));
+
+        searchIndex.load();
+
+        assertEquals(2, searchIndex.size());
+        assertEquals(List.of(1L), ids(searchIndex.search("дРелЬ", FIRST_PAGE)));
+    }
+
+    @Test
+    void searchMatchesNameOrDescriptionOfAvailableItemsOnly() {
+        searchIndex.put(item(1L, "Drill", "Power tool", true, 1L));
+        searchIndex.put(item(2L, "Saw", "Cordless drill saw", true, 1L));
+        searchIndex.put(item(3L, "Drill press", "Heavy", false, 1L));
+
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("DRILL", FIRST_PAGE)));
+        assertEquals(List.of(2L), ids(searchIndex.search("less dr", FIRST_PAGE)));
+        assertEquals(List.of(1L, 2L), ids(searchIndex.search("l", FIRST_PAGE)));
+        assertTrue(searchIndex.search("hammer", FIRST_PAGE).isEmpty());
+    }
+
+    @Test
+    void searchRequiresWholeQueryInOneField() {
+        searchIndex.put(item(1L, "abcd", "cdef", true, 1L));
+
+        assertTrue(searchIndex.search("abcdef", FIRST_PAGE).isEmpty());
+        assertEquals(List.of(1L), ids(searchIndex.search("bcd", FIRST_PAGE)));
+    }
+
+    @Test
+    void searchReturnsRequestedPage() {
+        for (long id = 1; id <= 25; id++) {
+            searchIndex.put(item(id, "Item " + id, "Description", true, 1L));
+        }
+
+        List<Long> thirdPage = ids(searchIndex.search("item", PageRequest.of(2, 10)));
+
+        assertEquals(List.of(21L, 22L, 23L, 24L, 25L), thirdPage);
+    }
+
+    @Test
+    void putReplacesPreviousTextAndRemoveDropsItem() {
+        searchIndex.put(item(1L, "Drill", "Tool", true, 1L));
+        searchIndex.put(item(1L, "Hammer", "Tool", true, 1L));
+
+        assertTrue(searchIndex.search("drill", FIRST_PAGE).isEmpty());
+        assertEquals(List.of(1L), ids(searchIndex.search("hammer", FIRST_PAGE)));
+
+        searchIndex.remove(1L);
+
+        assertTrue(searchIndex.search("hammer", FIRST_PAGE).isEmpty());
+        assertEquals(0, searchIndex.size());
+    }
+
+    @Test
+    void removeByOwnerDropsAllOwnerItems() {
+        searchIndex.put(item(1L, "Drill", "Tool", true, 1L));
+        searchIndex.put(item(2L, "Drill", "Tool", true, 2L));
+
+        searchIndex.removeByOwner(1L);
+
+        assertEquals(List.of(2L), ids(searchIndex.search("drill", FIRST_PAGE)));
+    }
+
+    @Test
+    void searchWithEmptyIndexReturnsNothing() {
+        when(itemRepository.findBatchAfterId(eq(0L), any())).thenReturn(Collections.emptyList());
+
+        searchIndex.load();
+
+        assertTrue(searchIndex.search("drill", FIRST_PAGE).isEmpty());
+    }
+
+    @Test
+    void searchPagesOverAcceptedItemsOnly() {
+        for (long id = 1; id <= 6; id++) {
+            searchIndex.put(item(id, "Drill " + id, "tool", true, 1L));
+        }
+        Set<Long> booked = Set.of(2L, 3L);
+        List<List<Long>> checked = new ArrayList<>();
+        Function<List<Long>, Set<Long>> rejected = itemIds -> {
+            checked.add(itemIds);
+            return itemIds.stream().filter(booked::contains).collect(Collectors.toSet());
+        };
+
+        assertEquals(List.of(1L, 4L), ids(searchIndex.search("drill", PageRequest.of(0, 2), rejected)));
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L), List.of(4L)), checked);
+
+        assertEquals(List.of(5L, 6L), ids(searchIndex.search("drill", PageRequest.of(1, 2), rejected)));
+    }
+
+    private static Item item(Long id, String name, String description, boolean available, Long ownerId) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .ownerId(ownerId)
+                .build();
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchServiceTest {
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    @Mock
+    private ItemSearchIndex searchIndex;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData metaData;
+
+    private ItemSearchProperties properties;
+    private ItemSearchService searchService;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ItemSearchProperties();
+        searchService = new ItemSearchService(properties, searchIndex, itemRepository, bookingRepository, dataSource);
+        item = Item.builder().id(1L).name("drill").description("tool").available(true).ownerId(1L).build();
+    }
+
+    @Test
+    void searchUsesIndexByDefault() {
+        List<ItemDto> expected = List.of(ItemDto.builder().id(1L).build());
+        when(searchIndex.search("drill", PAGE)).thenReturn(expected);
+
+        assertEquals(expected, searchService.search("drill", PAGE));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchUsesJpqlQueryInJpqlMode() {
+        properties.setMode(ItemSearchProperties.SearchMode.JPQL);
+        when(itemRepository.searchAvailableItems("drill", PAGE)).thenReturn(List.of(item));
+
+        List<ItemDto> result = searchService.search("drill", PAGE);
+
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.get(0).getId());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void fullTextModeFallsBackToJpqlOnH2() throws Exception {
+        properties.setMode(ItemSearchProperties.SearchMode.FULL_TEXT);
+        mockDatabase("H2");
+        when(itemRepository.searchAvailableItems("drill", PAGE)).thenReturn(List.of(item));
+
+        searchService.search("drill", PAGE);
+        searchService.search("drill", PAGE);
+
+        verify(itemRepository, times(2)).searchAvailableItems("drill", PAGE);
+        verify(itemRepository, never()).searchFullText(any(), any());
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void fullTextModeUsesTsVectorQueryOnPostgres() throws Exception {
+        properties.setMode(ItemSearchProperties.SearchMode.FULL_TEXT);
+        mockDatabase("PostgreSQL");
+        ResultSet columns = mock(ResultSet.class);
+        when(metaData.getColumns(null, null, "items", "search_vector")).thenReturn(columns);
+        when(columns.next()).thenReturn(true);
+        when(itemRepository.searchFullText("drill", PAGE)).thenReturn(List.of(item));
+
+        List<ItemDto> result = searchService.search("drill", PAGE);
+
+        assertEquals(1, result.size());
+        verify(itemRepository, never()).searchAvailableItems(any(), any());
+    }
+
+    @Test
+    void fullTextModeFallsBackWhenColumnIsMissing() throws Exception {
+        properties.setMode(ItemSearchProperties.SearchMode.FULL_TEXT);
+        mockDatabase("PostgreSQL");
+        ResultSet columns = mock(ResultSet.class);
+        when(metaData.getColumns(null, null, "items", "search_vector")).thenReturn(columns);
+        when(columns.next()).thenReturn(false);
+
+        searchService.search("drill", PAGE);
+
+        verify(itemRepository).searchAvailableItems("drill", PAGE);
+        verify(itemRepository, never()).searchFullText(any(), any());
+    }
+
+    private void mockDatabase(String productName) throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+    }
+
+    @Test
+    void searchFreeBetweenExcludesBookedItemsInIndexMode() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<ItemDto> expected = List.of(ItemDto.builder().id(1L).build());
+        when(bookingRepository.findBookedItemIds(eq(List.of(1L, 2L)), any(), eq(start), eq(start.plusDays(1))))
+                .thenReturn(Set.of(2L));
+        when(searchIndex.search(eq("drill"), eq(PAGE), any())).thenAnswer(invocation -> {
+            Function<List<Long>, Set<Long>> rejected = invocation.getArgument(2);
+            assertEquals(Set.of(2L), rejected.apply(List.of(1L, 2L)));
+            return expected;
+        });
+
+        assertEquals(expected, searchService.searchFreeBetween("drill", start, start.plusDays(1), PAGE));
+    }
+
+    @Test
+    void searchFreeBetweenUsesNotExistsQueryInJpqlMode() {
+        properties.setMode(ItemSearchProperties.SearchMode.JPQL);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemRepository.searchAvailableItemsFreeBetween("drill", start, start.plusDays(1), PAGE))
+                .thenReturn(List.of(item));
+
+        assertEquals(1, searchService.searchFreeBetween("drill", start, start.plusDays(1), PAGE).size());
+        verifyNoInteractions(searchIndex, bookingRepository);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void stripeCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(1024, new StripedLock(1000).stripeCount());
+        assertEquals(16, new StripedLock(16).stripeCount());
+        assertEquals(1, new StripedLock(1).stripeCount());
+    }
+
+    @Test
+    void sameKeyAlwaysMapsToSameStripe() {
+        StripedLock locks = new StripedLock(64);
+        assertSame(locks.stripeFor(42L), locks.stripeFor(42L));
+    }
+
+    @Test
+    void consecutiveIdsAreSpreadOverStripes() {
+        StripedLock locks = new StripedLock(64);
+        long distinct = LongStream.range(1, 65)
+                .mapToObj(locks::stripeFor)
+                .distinct()
+                .count();
+        assertTrue(distinct > 32);
+    }
+
+    @Test
+    void lockIsHeldUntilTransactionCompletes() {
+        StripedLock locks = new StripedLock(16);
+        TransactionSynchronizationManager.initSynchronization();
+
+        locks.lockUntilCompletion(7L);
+        ReentrantLock stripe = locks.stripeFor(7L);
+        assertTrue(stripe.isHeldByCurrentThread());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertFalse(stripe.isLocked());
+    }
+
+    @Test
+    void lockAllTakesEachStripeOnce() {
+        StripedLock locks = new StripedLock(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        locks.lockAllUntilCompletion(List.of(3L, 1L, 2L));
+        ReentrantLock stripe = locks.stripeFor(1L);
+        assertEquals(1, stripe.getHoldCount());
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(stripe.isLocked());
+    }
+
+    @Test
+    void lockOutsideTransactionIsRejected() {
+        StripedLock locks = new StripedLock(16);
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilCompletion(1L));
+    }
+}
@@ -10,6 +10,7 @@ import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserExistenceService;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
@@ -33,6 +34,9 @@ class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceService userExistence;
+
     @InjectMocks
     private ItemRequestService itemRequestService;
 
@@ -143,7 +147,7 @@ class ItemRequestServiceTest {
         List<ItemRequest> itemRequests = new ArrayList<>();
         itemRequests.add(itemRequest);
         List<Item> listItems = itemRequest.getItems();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistence.exists(userId)).thenReturn(true);
         when(requestRepository.findByRequesterIdOrderByCreatedDesc(userId)).thenReturn(itemRequests);
         when(itemRepository.findAllByItemRequestIn(itemRequests)).thenReturn(listItems);
 
@@ -151,16 +155,16 @@ class ItemRequestServiceTest {
         assertNotNull(itemRequestDtoList);
         assertEquals(1, itemRequestDtoList.size());
         assertEquals(itemRequest.getDescription(), itemRequestDtoList.get(0).getDescription());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistence, times(1)).exists(userId);
         verify(requestRepository, times(1)).findByRequesterIdOrderByCreatedDesc(userId);
     }
 
     @Test
     void findUserRequestsNotValidUserIdTest() {
         Long userId = 100L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userExistence.exists(userId)).thenReturn(false);
         assertThrows(NotFoundException.class, () -> itemRequestService.findUserRequests(userId));
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistence, times(1)).exists(userId);
         verify(requestRepository, never()).findByRequesterIdOrderByCreatedDesc(anyLong());
     }
 
@@ -178,7 +182,7 @@ class ItemRequestServiceTest {
         List<ItemRequest> itemRequests = new ArrayList<>();
         itemRequests.add(itemRequest);
         List<Item> listItems = itemRequest.getItems();
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userExistence.exists(userId)).thenReturn(true);
         when(requestRepository.findByRequesterIdIsNot(eq(userId), any())).thenReturn(itemRequests);
         when(itemRepository.findAllByItemRequestIn(itemRequests)).thenReturn(listItems);
 
@@ -186,7 +190,7 @@ class ItemRequestServiceTest {
         assertNotNull(itemRequestDtoList);
         assertEquals(1, itemRequestDtoList.size());
         assertEquals(itemRequest.getDescription(), itemRequestDtoList.get(0).getDescription());
-        verify(userRepository, times(1)).findById(userId);
+        verify(userExistence, times(1)).exists(userId);
         verify(requestRepository, times(1)).findByRequesterIdIsNot(eq(userId), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+class UserControllerMockMVCTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void findPagePassesCursorAndSize() throws Exception {
+        when(userService.findUserPage("abc", 2)).thenReturn(new UserPageDto(
+                List.of(new UserDto(3L, "name", "name@mail.ru")), "next"));
+
+        mockMvc.perform(get("/users")
+                        .param("cursor", "abc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].id").value(3L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void findPageRejectsNonPositiveSize() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("cursor", "")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verify(userService, never()).findUserPage(any(), any(Integer.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllWritesOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(new UserDto(1L, "a", "a@mail.ru"));
+            action.accept(new UserDto(2L, "b", "b@mail.ru"));
+            return null;
+        }).when(userService).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1,\"name\":\"a\",\"email\":\"a@mail.ru\"}\n"
+                        + "{\"id\":2,\"name\":\"b\",\"email\":\"b@mail.ru\"}\n"));
+    }
+}
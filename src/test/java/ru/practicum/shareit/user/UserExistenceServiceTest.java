@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void knownUserIsServedFromCacheUntilDeleted() {
+        UserExistenceService service = new UserExistenceService(userRepository, 10, 100);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(service.exists(1L));
+        assertTrue(service.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+
+        service.onDeleted(1L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(NotFoundException.class, () -> service.checkExists(1L));
+    }
+
+    @Test
+    void lookupRacingDeleteDoesNotCacheUser() {
+        UserExistenceService service = new UserExistenceService(userRepository, 10, 100);
+        when(userRepository.existsById(1L)).thenAnswer(invocation -> {
+            service.onDeleted(1L);
+            return true;
+        }).thenReturn(false);
+
+        assertTrue(service.exists(1L));
+        assertFalse(service.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void loadedFilterRejectsUnknownIdsWithoutQuery() {
+        UserExistenceService service = new UserExistenceService(userRepository, 10, 100);
+        when(userRepository.findBatchAfterId(anyLong(), any())).thenReturn(List.of(new User(1L, "a", "a@mail.ru")));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        service.load();
+
+        assertTrue(service.exists(1L));
+        assertFalse(service.exists(1_000_003L));
+
+        service.onCreated(1_000_003L);
+        service.exists(1_000_003L);
+        verify(userRepository).existsById(1_000_003L);
+    }
+}
@@ -4,28 +4,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
-public class UserRepositoryTest {
+class UserRepositoryTest {
 
     @Autowired
     private TestEntityManager entityManager;
-
     @Autowired
     private UserRepository userRepository;
 
     @Test
-    public void testFindById() {
-        User user = new User();
-        user.setName("user");
-        user.setEmail("user@example.com");
-        entityManager.persist(user);
+    public void testFindBatchAfterIdAndForEachUserFollowIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(entityManager.persist(User.builder().name("user" + i).email("user" + i + "@mail.ru").build())
+                    .getId());
+        }
         entityManager.flush();
-        User foundUser = userRepository.findById(user.getId()).orElse(null);
-        assertNotNull(foundUser);
-        assertEquals(foundUser, user);
+
+        assertEquals(ids.subList(1, 3), userRepository.findBatchAfterId(ids.get(0), PageRequest.of(0, 10)).stream()
+                .map(User::getId).collect(Collectors.toList()));
+
+        List<UserDto> streamed = new ArrayList<>();
+        userRepository.forEachUser(streamed::add);
+        assertEquals(ids, streamed.stream().map(UserDto::getId).collect(Collectors.toList()));
+        assertEquals("user2@mail.ru", streamed.get(2).getEmail());
     }
-}
\ No newline at end of file
+}
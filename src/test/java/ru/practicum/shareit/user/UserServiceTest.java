@@ -5,7 +5,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingStatsService;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.ItemCommentSummaryService;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +26,14 @@ class UserServiceTest {
     private UserService userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchIndex searchIndex;
+    @Mock
+    private BookingStatsService bookingStats;
+    @Mock
+    private UserExistenceService userExistence;
+    @Mock
+    private ItemCommentSummaryService commentSummaries;
 
 
     @Test
@@ -49,6 +62,19 @@ class UserServiceTest {
         assertEquals(userDto.getEmail(), updatedUserDto.getEmail());
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(any(User.class));
+        verifyNoInteractions(commentSummaries);
+    }
+
+    @Test
+    void saveUserWithNewNameRenamesCommentAuthor() {
+        Long userId = 1L;
+        UserDto userDto = new UserDto();
+        userDto.setName("renamed");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(new User(userId, "name", "user@mail.ru")));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("renamed", userService.save(userDto, userId).getName());
+        verify(commentSummaries, times(1)).onAuthorRenamed(userId, "renamed");
     }
 
     @Test
@@ -83,10 +109,35 @@ class UserServiceTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void findUserPageReturnsCursorAfterLastUserOfFullPage() {
+        when(userRepository.findBatchAfterId(0L, PageRequest.of(0, 2))).thenReturn(List.of(
+                new User(1L, "a", "a@mail.ru"), new User(4L, "b", "b@mail.ru")));
+        when(userRepository.findBatchAfterId(4L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        UserPageDto page = userService.findUserPage(null, 2);
+
+        assertEquals(2, page.getUsers().size());
+        UserPageDto last = userService.findUserPage(page.getNextCursor(), 2);
+        assertTrue(last.getUsers().isEmpty());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void findUserPageRejectsMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> userService.findUserPage("not a cursor", 2));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void deleteUserTest() {
         Long userId = 1L;
+        when(commentSummaries.findCommentedItemIds(userId)).thenReturn(List.of(2L));
         userService.delete(userId);
         verify(userRepository, times(1)).deleteById(userId);
+        verify(commentSummaries, times(1)).onAuthorDeleted(List.of(2L));
+        verify(searchIndex, times(1)).removeByOwner(userId);
+        verify(bookingStats, times(1)).invalidateAll();
+        verify(userExistence, times(1)).onDeleted(userId);
     }
 }
\ No newline at end of file